@@ -1,16 +1,23 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BlockingServerExchange;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.ServerStream;
+import ru.practicum.shareit.client.SingleFlight;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,43 +25,64 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientProperties serverProperties, BlockingServerExchange blockingExchange,
+            ServerExchange serverExchange, ResponseCache responseCache, SingleFlight singleFlight) {
+        super(serverProperties.getUrl() + API_PREFIX, blockingExchange, serverExchange, responseCache, singleFlight);
     }
 
-    public ResponseEntity<Object> getBookingsOfUser(int userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ServerCall getBookingsOfUser(int userId, BookingState state, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get("?state={state}&from={from}&size={size}" + cursorQuery(parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsOfItemsOwner(int userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ServerCall getBookingsOfItemsOwner(int userId, BookingState state, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get("/owner?state={state}&from={from}&size={size}" + cursorQuery(parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBooking(int userId, int bookingId) {
+    public ServerCall countBookingsOfUser(int userId, BookingState state) {
+        return get("/count?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    public ServerCall countBookingsOfItemsOwner(int userId, BookingState state) {
+        return get("/owner/count?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    public ServerCall getBooking(int userId, int bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> createBooking(int userId, CreateBookingDto requestDto) {
+    public ServerCall createBooking(int userId, CreateBookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> patchBooking(int userId, int bookingId, boolean approved) {
+    public ServerCall createBookings(int userId, List<CreateBookingDto> requestDtos) {
+        return post("/bulk", userId, requestDtos);
+    }
+
+    public ServerCall patchBooking(int userId, int bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ServerStream exportBookingsOfUser(int userId, @Nullable String format) {
+        return export("/export", userId, format);
+    }
+
+    public ServerStream exportBookingsOfItemsOwner(int userId, @Nullable String format) {
+        return export("/owner/export", userId, format);
+    }
+
+    private ServerStream export(String path, int userId, @Nullable String format) {
+        HttpHeaders headers = ServerExchange.streamingHeaders(userId, null, null);
+        return stream(HttpMethod.GET, format == null ? path : path + "?format={format}",
+                format == null ? null : Map.of("format", format), headers);
+    }
 }
@@ -3,80 +3,122 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.annotation.Conditional;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.config.BlockingGatewayCondition;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Slf4j
 @Validated
 @Controller
+@Conditional(BlockingGatewayCondition.class)
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+	static final int MAX_BOOKINGS_IN_BULK = 500;
+
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+	public ResponseEntity<byte[]> getBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
 			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
-			@Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size
+			@Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "cursor", required = false) String cursor
 	) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Пришел GET-запрос /bookings?state={}&from={}&size={}, userId={} без тела", state, from, size, userId);
-		ResponseEntity<Object> response = bookingClient.getBookingsOfUser(userId, state, from, size);
-		log.info("Ответ на GET-запрос /bookings?state={}&from={}&size={}, userId={} с телом={}", state, from, size, userId, response);
+		log.info("Пришел GET-запрос /bookings?state={}&from={}&size={}&cursor={}, userId={} без тела", state, from, size, cursor, userId);
+		ResponseEntity<byte[]> response = bookingClient.getBookingsOfUser(userId, state, from, size, cursor).send();
+		log.info("Ответ на GET-запрос /bookings?state={}&from={}&size={}&cursor={}, userId={} со статусом={}", state, from, size, cursor, userId, response.getStatusCode());
 		return response;
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+	public ResponseEntity<byte[]> getBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
 			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
-			@Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size
+			@Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "cursor", required = false) String cursor
+	) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Пришел GET-запрос /bookings/owner?state={}&from={}&size={}&cursor={}, userId={} без тела", state, from, size, cursor, userId);
+		ResponseEntity<byte[]> response = bookingClient.getBookingsOfItemsOwner(userId, state, from, size, cursor).send();
+		log.info("Ответ на GET-запрос /bookings/owner?state={}&from={}&size={}&cursor={}, userId={} со статусом={}", state, from, size, cursor, userId, response.getStatusCode());
+		return response;
+	}
+
+	@GetMapping("/count")
+	public ResponseEntity<byte[]> countBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam
+	) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Пришел GET-запрос /bookings/count?state={}, userId={} без тела", state, userId);
+		ResponseEntity<byte[]> response = bookingClient.countBookingsOfUser(userId, state).send();
+		log.info("Ответ на GET-запрос /bookings/count?state={}, userId={} со статусом={}", state, userId, response.getStatusCode());
+		return response;
+	}
+
+	@GetMapping("/owner/count")
+	public ResponseEntity<byte[]> countBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam
 	) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Пришел GET-запрос /bookings/owner?state={}&from={}&size={}, userId={} без тела", state, from, size, userId);
-		ResponseEntity<Object> response = bookingClient.getBookingsOfItemsOwner(userId, state, from, size);
-		log.info("Ответ на GET-запрос /bookings/owner?state={}&from={}&size={}, userId={} с телом={}", state, from, size, userId, response);
+		log.info("Пришел GET-запрос /bookings/owner/count?state={}, userId={} без тела", state, userId);
+		ResponseEntity<byte[]> response = bookingClient.countBookingsOfItemsOwner(userId, state).send();
+		log.info("Ответ на GET-запрос /bookings/owner/count?state={}, userId={} со статусом={}", state, userId, response.getStatusCode());
 		return response;
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+	public ResponseEntity<byte[]> getBooking(@RequestHeader("X-Sharer-User-Id") int userId,
 			@PathVariable int bookingId) {
 		log.info("Пришел GET-запрос /bookings/{bookingId={}}, userId={} без тела", bookingId, userId);
-		ResponseEntity<Object> response = bookingClient.getBooking(userId, bookingId);
-		log.info("Ответ на GET-запрос /bookings/{bookingId={}}, userId={} с телом={}", bookingId, userId, response);
+		ResponseEntity<byte[]> response = bookingClient.getBooking(userId, bookingId).send();
+		log.info("Ответ на GET-запрос /bookings/{bookingId={}}, userId={} со статусом={}", bookingId, userId, response.getStatusCode());
 		return response;
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+	public ResponseEntity<byte[]> createBooking(@RequestHeader("X-Sharer-User-Id") int userId,
 			@RequestBody @Valid CreateBookingDto dto) {
 		log.info("Пришел POST-запрос /booking, userId={} с телом={}", userId, dto);
-		ResponseEntity<Object> response = bookingClient.createBooking(userId, dto);
-		log.info("Ответ на POST-запрос /booking, userId={} с телом={}", userId, response);
+		ResponseEntity<byte[]> response = bookingClient.createBooking(userId, dto).send();
+		log.info("Ответ на POST-запрос /booking, userId={} со статусом={}", userId, response.getStatusCode());
+		return response;
+	}
+
+	@PostMapping("/bulk")
+	public ResponseEntity<byte[]> createBookings(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestBody @Size(min = 1, max = MAX_BOOKINGS_IN_BULK) List<@Valid CreateBookingDto> dtos) {
+		log.info("Пришел POST-запрос /booking/bulk, userId={} с {} арендами", userId, dtos.size());
+		ResponseEntity<byte[]> response = bookingClient.createBookings(userId, dtos).send();
+		log.info("Ответ на POST-запрос /booking/bulk, userId={} со статусом={}", userId, response.getStatusCode());
 		return response;
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> patchBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+	public ResponseEntity<byte[]> patchBooking(@RequestHeader("X-Sharer-User-Id") int userId,
 		    @PathVariable int bookingId,
 		    @RequestParam(name = "approved", required = false, defaultValue = "false") boolean isApproved
 	) {
 		log.info("Пришел PATCH-запрос /booking/{bookingId={}}?approved={}, userId={} без тела", bookingId, isApproved, userId);
-		ResponseEntity<Object> response = bookingClient.patchBooking(userId, bookingId, isApproved);
-		log.info("Ответ на PATCH-запрос /booking/{bookingId={}}?approved={}, userId={} с телом={}", bookingId, isApproved, userId, response);
+		ResponseEntity<byte[]> response = bookingClient.patchBooking(userId, bookingId, isApproved).send();
+		log.info("Ответ на PATCH-запрос /booking/{bookingId={}}?approved={}, userId={} со статусом={}", bookingId, isApproved, userId, response.getStatusCode());
 		return response;
 	}
 
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.ServletStreams;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Passes booking exports through without holding them in memory, servlet mode
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BookingExportController {
+
+    private final BookingClient bookingClient;
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "format", required = false) String format,
+            HttpServletRequest request) throws IOException {
+        log.info("Пришел GET-запрос /bookings/export?format={}, userId={} без тела", format, userId);
+        ResponseEntity<StreamingResponseBody> response = ServletStreams.write(request,
+                bookingClient.exportBookingsOfUser(userId, format).open(null));
+        log.info("Ответ на GET-запрос /bookings/export?format={}, userId={} со статусом={}", format, userId, response.getStatusCode());
+        return response;
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "format", required = false) String format,
+            HttpServletRequest request) throws IOException {
+        log.info("Пришел GET-запрос /bookings/owner/export?format={}, userId={} без тела", format, userId);
+        ResponseEntity<StreamingResponseBody> response = ServletStreams.write(request,
+                bookingClient.exportBookingsOfItemsOwner(userId, format).open(null));
+        log.info("Ответ на GET-запрос /bookings/owner/export?format={}, userId={} со статусом={}", format, userId, response.getStatusCode());
+        return response;
+    }
+}
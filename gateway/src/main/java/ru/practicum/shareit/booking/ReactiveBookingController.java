@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.config.ReactiveGatewayCondition;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Counterpart of {@link BookingController} for the reactive mode
+ */
+@Slf4j
+@Validated
+@Controller
+@Conditional(ReactiveGatewayCondition.class)
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+public class ReactiveBookingController {
+
+	private final BookingClient bookingClient;
+
+	@GetMapping
+	public Mono<ResponseEntity<byte[]>> getBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+			@PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
+			@Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "cursor", required = false) String cursor
+	) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Пришел GET-запрос /bookings?state={}&from={}&size={}&cursor={}, userId={} без тела", state, from, size, cursor, userId);
+		return bookingClient.getBookingsOfUser(userId, state, from, size, cursor).toMono()
+				.doOnNext(response -> log.info("Ответ на GET-запрос /bookings?state={}&from={}&size={}&cursor={}, userId={} со статусом={}", state, from, size, cursor, userId, response.getStatusCode()));
+	}
+
+	@GetMapping("/owner")
+	public Mono<ResponseEntity<byte[]>> getBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+			@PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
+			@Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "cursor", required = false) String cursor
+	) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Пришел GET-запрос /bookings/owner?state={}&from={}&size={}&cursor={}, userId={} без тела", state, from, size, cursor, userId);
+		return bookingClient.getBookingsOfItemsOwner(userId, state, from, size, cursor).toMono()
+				.doOnNext(response -> log.info("Ответ на GET-запрос /bookings/owner?state={}&from={}&size={}&cursor={}, userId={} со статусом={}", state, from, size, cursor, userId, response.getStatusCode()));
+	}
+
+	@GetMapping("/count")
+	public Mono<ResponseEntity<byte[]>> countBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam
+	) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Пришел GET-запрос /bookings/count?state={}, userId={} без тела", state, userId);
+		return bookingClient.countBookingsOfUser(userId, state).toMono()
+				.doOnNext(response -> log.info("Ответ на GET-запрос /bookings/count?state={}, userId={} со статусом={}", state, userId, response.getStatusCode()));
+	}
+
+	@GetMapping("/owner/count")
+	public Mono<ResponseEntity<byte[]>> countBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam
+	) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Пришел GET-запрос /bookings/owner/count?state={}, userId={} без тела", state, userId);
+		return bookingClient.countBookingsOfItemsOwner(userId, state).toMono()
+				.doOnNext(response -> log.info("Ответ на GET-запрос /bookings/owner/count?state={}, userId={} со статусом={}", state, userId, response.getStatusCode()));
+	}
+
+	@GetMapping("/{bookingId}")
+	public Mono<ResponseEntity<byte[]>> getBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+			@PathVariable int bookingId) {
+		log.info("Пришел GET-запрос /bookings/{bookingId={}}, userId={} без тела", bookingId, userId);
+		return bookingClient.getBooking(userId, bookingId).toMono()
+				.doOnNext(response -> log.info("Ответ на GET-запрос /bookings/{bookingId={}}, userId={} со статусом={}", bookingId, userId, response.getStatusCode()));
+	}
+
+	@PostMapping
+	public Mono<ResponseEntity<byte[]>> createBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestBody @Valid CreateBookingDto dto) {
+		log.info("Пришел POST-запрос /booking, userId={} с телом={}", userId, dto);
+		return bookingClient.createBooking(userId, dto).toMono()
+				.doOnNext(response -> log.info("Ответ на POST-запрос /booking, userId={} со статусом={}", userId, response.getStatusCode()));
+	}
+
+	@PostMapping("/bulk")
+	public Mono<ResponseEntity<byte[]>> createBookings(@RequestHeader("X-Sharer-User-Id") int userId,
+			@RequestBody @Size(min = 1, max = BookingController.MAX_BOOKINGS_IN_BULK) List<@Valid CreateBookingDto> dtos) {
+		log.info("Пришел POST-запрос /booking/bulk, userId={} с {} арендами", userId, dtos.size());
+		return bookingClient.createBookings(userId, dtos).toMono()
+				.doOnNext(response -> log.info("Ответ на POST-запрос /booking/bulk, userId={} со статусом={}", userId, response.getStatusCode()));
+	}
+
+	@PatchMapping("/{bookingId}")
+	public Mono<ResponseEntity<byte[]>> patchBooking(@RequestHeader("X-Sharer-User-Id") int userId,
+		    @PathVariable int bookingId,
+		    @RequestParam(name = "approved", required = false, defaultValue = "false") boolean isApproved
+	) {
+		log.info("Пришел PATCH-запрос /booking/{bookingId={}}?approved={}, userId={} без тела", bookingId, isApproved, userId);
+		return bookingClient.patchBooking(userId, bookingId, isApproved).toMono()
+				.doOnNext(response -> log.info("Ответ на PATCH-запрос /booking/{bookingId={}}?approved={}, userId={} со статусом={}", bookingId, isApproved, userId, response.getStatusCode()));
+	}
+
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counterpart of {@link BookingExportController} for the reactive mode
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingExportController {
+
+    private final BookingClient bookingClient;
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "format", required = false) String format) {
+        log.info("Пришел GET-запрос /bookings/export?format={}, userId={} без тела", format, userId);
+        return bookingClient.exportBookingsOfUser(userId, format).toMono(null)
+                .doOnNext(response -> log.info("Ответ на GET-запрос /bookings/export?format={}, userId={} со статусом={}", format, userId, response.getStatusCode()));
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsOfItemsOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "format", required = false) String format) {
+        log.info("Пришел GET-запрос /bookings/owner/export?format={}, userId={} без тела", format, userId);
+        return bookingClient.exportBookingsOfItemsOwner(userId, format).toMono(null)
+                .doOnNext(response -> log.info("Ответ на GET-запрос /bookings/owner/export?format={}, userId={} со статусом={}", format, userId, response.getStatusCode()));
+    }
+}
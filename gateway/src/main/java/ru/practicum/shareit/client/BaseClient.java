@@ -1,121 +1,132 @@
 package ru.practicum.shareit.client;
 
-import java.util.List;
+import java.net.URI;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
-
-    protected ResponseEntity<Object> get(String path) {
+    private final UriBuilderFactory uriBuilderFactory;
+    private final BlockingServerExchange blockingExchange;
+    private final ServerExchange serverExchange;
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
+
+    public BaseClient(String baseUrl, BlockingServerExchange blockingExchange, ServerExchange serverExchange,
+                      ResponseCache responseCache, SingleFlight singleFlight) {
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
+        this.blockingExchange = blockingExchange;
+        this.serverExchange = serverExchange;
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
+    }
+
+    protected ServerCall get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, int userId) {
+    protected ServerCall get(String path, int userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected ServerCall get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        String key = uri.toString();
+        return new ServerCall(
+                () -> responseCache.getBlocking(key, userId, () -> singleFlight.executeBlocking(key, userId,
+                        () -> blockingExchange.exchange(HttpMethod.GET, uri, userId, null))),
+                () -> responseCache.get(key, userId, () -> singleFlight.execute(key, userId,
+                        () -> serverExchange.exchange(HttpMethod.GET, uri, userId, null))));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> ServerCall post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, int userId, T body) {
+    protected <T> ServerCall post(String path, int userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ServerCall post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, T body) {
+    protected <T> ServerCall put(String path, int userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ServerCall put(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> ServerCall patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId) {
+    protected <T> ServerCall patch(String path, int userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId, T body) {
+    protected <T> ServerCall patch(String path, int userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ServerCall patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected ServerCall delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, int userId) {
+    protected ServerCall delete(String path, int userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected ServerCall delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Streams the bodies between the client and the server, the response is never cached
+     */
+    protected ServerStream stream(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                  HttpHeaders headers) {
+        return new ServerStream(method, expand(path, parameters), headers, blockingExchange, serverExchange,
+                responseCache);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    /**
+     * Adds the optional pagination cursor to the parameters and returns the query part referring to it
+     */
+    protected static String cursorQuery(Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return "";
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        parameters.put("cursor", cursor);
+        return "&cursor={cursor}";
     }
 
-    private HttpHeaders defaultHeaders(Integer userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
-        }
-        return headers;
+    private <T> ServerCall makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = expand(path, parameters);
+        return new ServerCall(
+                () -> invalidateCacheOnSuccess(blockingExchange.exchange(method, uri, userId, body)),
+                () -> serverExchange.exchange(method, uri, userId, body).doOnNext(this::invalidateCacheOnSuccess));
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    private ResponseEntity<byte[]> invalidateCacheOnSuccess(ResponseEntity<byte[]> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+            responseCache.invalidateAll();
         }
+        return response;
+    }
 
-        return responseBuilder.build();
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
     }
 }
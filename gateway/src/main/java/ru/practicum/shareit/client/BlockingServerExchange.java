@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Blocking counterpart of {@link ServerExchange}, the calling thread waits for the response of the server
+ */
+public interface BlockingServerExchange {
+
+    ResponseEntity<byte[]> exchange(HttpMethod method, URI uri, @Nullable Integer userId, @Nullable Object body);
+
+    /**
+     * Writes the request body to the server while it is being read and returns the response as soon as its headers
+     * arrive. The response must be closed, it holds the connection until then
+     */
+    ClientHttpResponse stream(HttpMethod method, URI uri, HttpHeaders headers,
+                              @Nullable StreamingHttpOutputMessage.Body body) throws IOException;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+
+/**
+ * Serves the reactive controllers with the blocking exchange, as when clients are served on Netty while requests
+ * to the server are still sent blocking. Subscribed to from a non-blocking thread, the call and the reads
+ * of a streamed body move to the bounded elastic scheduler, so that no event loop thread is blocked
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit-gateway.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class BlockingServerExchangeAdapter implements ServerExchange {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final BlockingServerExchange blockingExchange;
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, @Nullable Integer userId, @Nullable Object body) {
+        return offEventLoop(Mono.fromCallable(() -> blockingExchange.exchange(method, uri, userId, body)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, URI uri, HttpHeaders headers,
+                                                         @Nullable Flux<DataBuffer> body) {
+        StreamingHttpOutputMessage.Body requestBody = body == null ? null : output -> DataBufferUtils.write(body, output)
+                .map(DataBufferUtils::release)
+                .blockLast();
+        return offEventLoop(Mono.fromCallable(() -> {
+            ClientHttpResponse response = blockingExchange.stream(method, uri, headers, requestBody);
+            Flux<DataBuffer> responseBody = offEventLoop(DataBufferUtils.readInputStream(
+                            response::getBody, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                    .doFinally(signal -> response.close()));
+            return ServerExchange.toGatewayResponse(response.getRawStatusCode(), response.getHeaders(), responseBody);
+        }));
+    }
+
+    /**
+     * A servlet thread may block and keeps running the call itself, the thread is only known on subscription
+     */
+    private static <T> Mono<T> offEventLoop(Mono<T> call) {
+        return Mono.defer(() -> Schedulers.isInNonBlockingThread()
+                ? call.subscribeOn(Schedulers.boundedElastic())
+                : call);
+    }
+
+    private static <T> Flux<T> offEventLoop(Flux<T> call) {
+        return Flux.defer(() -> Schedulers.isInNonBlockingThread()
+                ? call.subscribeOn(Schedulers.boundedElastic())
+                : call);
+    }
+}
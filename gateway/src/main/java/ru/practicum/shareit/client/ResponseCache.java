@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Optional gateway-side cache of successful GET responses of the server, keyed by the request URI and the user.
+ * Any successful write through the gateway clears it; writes through other gateways are covered by the time to live.
+ * A response read from the server while a write cleared the cache may predate the write, it is not cached
+ */
+@Component
+public class ResponseCache {
+
+    @Nullable
+    private final Cache<String, ResponseEntity<byte[]>> responses;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(@Value("${shareit-gateway.response-cache.time-to-live:0s}") Duration timeToLive,
+                         @Value("${shareit-gateway.response-cache.maximum-size:10000}") long maximumSize) {
+        this.responses = timeToLive.isZero() || timeToLive.isNegative() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public Mono<ResponseEntity<byte[]>> get(String uri, @Nullable Integer userId,
+                                            Supplier<Mono<ResponseEntity<byte[]>>> loader) {
+        if (responses == null) {
+            return loader.get();
+        }
+        String key = userId + " " + uri;
+        return Mono.defer(() -> {
+            ResponseEntity<byte[]> cached = responses.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long loadedInGeneration = generation.get();
+            return loader.get().doOnNext(response -> put(key, response, loadedInGeneration));
+        });
+    }
+
+    public ResponseEntity<byte[]> getBlocking(String uri, @Nullable Integer userId,
+                                              Supplier<ResponseEntity<byte[]>> loader) {
+        if (responses == null) {
+            return loader.get();
+        }
+        String key = userId + " " + uri;
+        ResponseEntity<byte[]> cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedInGeneration = generation.get();
+        ResponseEntity<byte[]> response = loader.get();
+        put(key, response, loadedInGeneration);
+        return response;
+    }
+
+    public void invalidateAll() {
+        if (responses != null) {
+            generation.incrementAndGet();
+            responses.invalidateAll();
+        }
+    }
+
+    private void put(String key, ResponseEntity<byte[]> response, long loadedInGeneration) {
+        if (response.getStatusCode().is2xxSuccessful() && generation.get() == loadedInGeneration) {
+            responses.put(key, response);
+            // the cache may have been cleared between the check and the put
+            if (generation.get() != loadedInGeneration) {
+                responses.asMap().remove(key, response);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Blocking exchange over the pooled HTTP client, the request thread waits for the response of the server.
+ * It serves the controllers of the blocking mode and the streams of the servlet controllers in any mode
+ */
+@Component
+public class RestTemplateServerExchange implements BlockingServerExchange {
+
+    private final RestTemplate rest;
+    private final HttpComponentsClientHttpRequestFactory streamingRequestFactory;
+
+    /**
+     * The builder is only auto-configured for servlet applications, in the reactive one a plain builder is used
+     */
+    public RestTemplateServerExchange(ObjectProvider<RestTemplateBuilder> builder, HttpClient serverHttpClient) {
+        this.rest = builder.getIfAvailable(RestTemplateBuilder::new)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                .errorHandler(new PassErrorsResponseErrorHandler())
+                .build();
+        this.streamingRequestFactory = new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        this.streamingRequestFactory.setBufferRequestBody(false);
+    }
+
+    @Override
+    public ResponseEntity<byte[]> exchange(HttpMethod method, URI uri, @Nullable Integer userId, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, ServerExchange.defaultHeaders(userId));
+        ResponseEntity<byte[]> response = rest.exchange(uri, method, requestEntity, byte[].class);
+        return ServerExchange.toGatewayResponse(response.getStatusCodeValue(), response.getHeaders(), response.getBody());
+    }
+
+    @Override
+    public ClientHttpResponse stream(HttpMethod method, URI uri, HttpHeaders headers,
+                                     @Nullable StreamingHttpOutputMessage.Body body) throws IOException {
+        ClientHttpRequest request = streamingRequestFactory.createRequest(uri, method);
+        request.getHeaders().addAll(headers);
+        if (body != null) {
+            ((StreamingHttpOutputMessage) request).setBody(body);
+        }
+        return request.execute();
+    }
+
+    /**
+     * Error responses of the server are passed to the client like any other
+     */
+    private static class PassErrorsResponseErrorHandler extends DefaultResponseErrorHandler {
+
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * A request of a client to the server, not sent yet. The controllers of the blocking mode send it and wait
+ * for the response, those of the reactive mode subscribe to it
+ */
+public final class ServerCall {
+
+    private final Supplier<ResponseEntity<byte[]>> blockingCall;
+    private final Supplier<Mono<ResponseEntity<byte[]>>> reactiveCall;
+
+    ServerCall(Supplier<ResponseEntity<byte[]>> blockingCall, Supplier<Mono<ResponseEntity<byte[]>>> reactiveCall) {
+        this.blockingCall = blockingCall;
+        this.reactiveCall = reactiveCall;
+    }
+
+    public ResponseEntity<byte[]> send() {
+        return blockingCall.get();
+    }
+
+    public Mono<ResponseEntity<byte[]>> toMono() {
+        return Mono.defer(reactiveCall);
+    }
+}
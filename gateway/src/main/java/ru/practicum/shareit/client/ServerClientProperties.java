@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Address of the server and settings of the connection pool shared by all clients of the gateway
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit-server")
+public class ServerClientProperties {
+
+    /**
+     * Base url of the server
+     */
+    private String url;
+
+    /**
+     * Connections to the server open at once
+     */
+    private int maxConnections = 500;
+
+    /**
+     * Connections open at once to a single host of the server
+     */
+    private int maxConnectionsPerRoute = 500;
+
+    /**
+     * Requests allowed to wait for a free connection, in the reactive mode only
+     */
+    private int maxPendingAcquires = 1000;
+
+    /**
+     * Time to wait for a free connection of the pool
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long an idle connection is kept alive when the server does not say otherwise
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections are closed in the background after this time
+     */
+    private Duration idleTimeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sends a request of the gateway to the server and returns the response of the server as is, body bytes and headers,
+ * without parsing it. Error responses are returned the same way instead of being thrown
+ */
+public interface ServerExchange {
+
+    /**
+     * Framing headers of the server response, the gateway frames the body again when it writes it to the client
+     */
+    Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "upgrade"
+    );
+
+    Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, @Nullable Integer userId, @Nullable Object body);
+
+    /**
+     * Sends the request body to the server while it is being read and returns the response body while it is being
+     * received, neither is held in memory. The response body must be consumed, it holds the connection until then
+     */
+    Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, URI uri, HttpHeaders headers,
+                                                  @Nullable Flux<DataBuffer> body);
+
+    static HttpHeaders defaultHeaders(@Nullable Integer userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    /**
+     * Headers of a streamed request, the format of the bodies is chosen by the client instead of being JSON
+     */
+    static HttpHeaders streamingHeaders(@Nullable Integer userId, @Nullable String contentType, @Nullable String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        if (contentType != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+        if (accept != null) {
+            headers.set(HttpHeaders.ACCEPT, accept);
+        }
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    static <T> ResponseEntity<T> toGatewayResponse(int status, HttpHeaders serverHeaders, @Nullable T body) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * A request of a client to the server whose bodies are streamed, not sent yet. The servlet controllers open it
+ * and read the response as an input stream, the controllers served on Netty subscribe to it.
+ * A successful write clears the response cache, the streamed response itself is never cached
+ */
+public final class ServerStream {
+
+    private final HttpMethod method;
+    private final URI uri;
+    private final HttpHeaders headers;
+    private final BlockingServerExchange blockingExchange;
+    private final ServerExchange serverExchange;
+    private final ResponseCache responseCache;
+
+    ServerStream(HttpMethod method, URI uri, HttpHeaders headers, BlockingServerExchange blockingExchange,
+                 ServerExchange serverExchange, ResponseCache responseCache) {
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.blockingExchange = blockingExchange;
+        this.serverExchange = serverExchange;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Sends the request and returns the response once its headers arrive. The response must be closed
+     */
+    public ClientHttpResponse open(@Nullable StreamingHttpOutputMessage.Body body) throws IOException {
+        ClientHttpResponse response = blockingExchange.stream(method, uri, headers, body);
+        invalidateCacheOnSuccessfulWrite(response.getRawStatusCode());
+        return response;
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> toMono(@Nullable Flux<DataBuffer> body) {
+        return serverExchange.stream(method, uri, headers, body)
+                .doOnNext(response -> invalidateCacheOnSuccessfulWrite(response.getStatusCodeValue()));
+    }
+
+    /**
+     * Reads a streamed response whose body is known to be small, such as a report or an error, and closes it
+     */
+    public static ResponseEntity<byte[]> joinBody(ClientHttpResponse serverResponse) throws IOException {
+        try (ClientHttpResponse response = serverResponse) {
+            byte[] body = StreamUtils.copyToByteArray(response.getBody());
+            return ServerExchange.toGatewayResponse(response.getRawStatusCode(), response.getHeaders(), body);
+        }
+    }
+
+    /**
+     * Collects a streamed response whose body is known to be small, such as a report or an error
+     */
+    public static Mono<ResponseEntity<byte[]>> joinBody(ResponseEntity<Flux<DataBuffer>> response) {
+        Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(bytes -> ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(bytes));
+    }
+
+    private void invalidateCacheOnSuccessfulWrite(int status) {
+        if (method != HttpMethod.GET && status >= 200 && status < 300) {
+            responseCache.invalidateAll();
+        }
+    }
+}
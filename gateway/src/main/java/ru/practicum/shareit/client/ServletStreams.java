@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Bridges the bodies of servlet requests and responses to the streams of {@link BlockingServerExchange#stream}
+ */
+public final class ServletStreams {
+
+    private ServletStreams() {
+    }
+
+    public static StreamingHttpOutputMessage.Body read(HttpServletRequest request) {
+        return output -> StreamUtils.copy(request.getInputStream(), output);
+    }
+
+    /**
+     * Writes the streamed response of the server to the client as it arrives and closes it. The ETag filter is told
+     * not to buffer it, the whole body would be held in memory to compute the hash otherwise
+     */
+    public static ResponseEntity<StreamingResponseBody> write(HttpServletRequest request,
+                                                              ClientHttpResponse serverResponse) throws IOException {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        StreamingResponseBody body = output -> {
+            try (ClientHttpResponse response = serverResponse) {
+                StreamUtils.copy(response.getBody(), output);
+            }
+        };
+        return ServerExchange.toGatewayResponse(serverResponse.getRawStatusCode(), serverResponse.getHeaders(), body);
+    }
+}
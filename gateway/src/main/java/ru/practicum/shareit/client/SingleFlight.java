@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical GET requests, same URI and user, that arrive while one of them is still waiting for the server:
+ * only the first goes to the server and the rest get its response. The split is counted
+ * by {@code shareit.gateway.single.flight} with the {@code call} tag set to {@code upstream} or {@code coalesced}
+ */
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final Map<String, Mono<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ResponseEntity<byte[]>>> blockingInFlight = new ConcurrentHashMap<>();
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    public SingleFlight(@Value("${shareit-gateway.single-flight.enabled:true}") boolean enabled,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.upstreamCalls = meterRegistry.counter("shareit.gateway.single.flight", "call", "upstream");
+        this.coalescedCalls = meterRegistry.counter("shareit.gateway.single.flight", "call", "coalesced");
+    }
+
+    public Mono<ResponseEntity<byte[]>> execute(String uri, @Nullable Integer userId,
+                                                Supplier<Mono<ResponseEntity<byte[]>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        String key = userId + " " + uri;
+        return Mono.defer(() -> {
+            AtomicReference<Mono<ResponseEntity<byte[]>>> created = new AtomicReference<>();
+            Mono<ResponseEntity<byte[]>> shared = inFlight.computeIfAbsent(key, k -> {
+                // the call is canceled and forgotten once every caller waiting for it has canceled
+                Mono<ResponseEntity<byte[]>> flight = call.get()
+                        .doFinally(signal -> inFlight.remove(k, created.get()))
+                        .flux()
+                        .replay(1)
+                        .refCount()
+                        .singleOrEmpty();
+                created.set(flight);
+                return flight;
+            });
+            if (shared == created.get()) {
+                upstreamCalls.increment();
+            } else {
+                coalescedCalls.increment();
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * Blocking counterpart of {@link #execute}, the coalesced callers wait for the thread making the call
+     */
+    public ResponseEntity<byte[]> executeBlocking(String uri, @Nullable Integer userId,
+                                                  Supplier<ResponseEntity<byte[]>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        String key = userId + " " + uri;
+        CompletableFuture<ResponseEntity<byte[]>> created = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> shared = blockingInFlight.putIfAbsent(key, created);
+        if (shared != null) {
+            coalescedCalls.increment();
+            try {
+                return shared.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        upstreamCalls.increment();
+        try {
+            ResponseEntity<byte[]> response = call.get();
+            created.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            blockingInFlight.remove(key, created);
+            // an error other than a runtime exception must not leave the waiting callers hanging
+            created.completeExceptionally(new IllegalStateException("Запрос к серверу не завершился"));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+
+/**
+ * The blocking mode: clients are served by servlet threads that wait for the server, so the controllers answer
+ * with plain responses and no request goes through an async dispatch
+ */
+public class BlockingGatewayCondition extends AllNestedConditions {
+
+    public BlockingGatewayCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletServer {
+    }
+
+    @ConditionalOnProperty(name = "shareit-gateway.client.mode", havingValue = "blocking", matchIfMissing = true)
+    static class BlockingClient {
+    }
+}
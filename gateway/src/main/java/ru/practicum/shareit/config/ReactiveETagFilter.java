@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Counterpart of the ETag filter of {@link ETagConfiguration} for the reactive mode
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveETagFilter implements WebFilter {
+
+    private static final List<String> PATHS = List.of("/items", "/requests", "/users", "/bookings");
+
+    /**
+     * Exports are streamed to the client, buffering them to compute the hash would hold them in memory
+     */
+    private static final String EXPORT_SUFFIX = "/export";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || path.endsWith(EXPORT_SUFFIX)
+                || PATHS.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"))) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatus status = getStatusCode();
+                if (status != null && !status.is2xxSuccessful()) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    if (exchange.checkNotModified("\"0" + DigestUtils.md5DigestAsHex(bytes) + "\"")) {
+                        return setComplete();
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+}
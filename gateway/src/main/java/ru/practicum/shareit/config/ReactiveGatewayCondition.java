@@ -0,0 +1,19 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * The reactive mode: clients are served on Netty, requests to the server are sent without blocking, or both.
+ * The controllers answer with {@code Mono} there
+ */
+public class ReactiveGatewayCondition extends NoneNestedConditions {
+
+    public ReactiveGatewayCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @Conditional(BlockingGatewayCondition.class)
+    static class BlockingGateway {
+    }
+}
@@ -1,17 +1,24 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BlockingServerExchange;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.ServerStream;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.PatchItemDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,28 +26,24 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerClientProperties serverProperties, BlockingServerExchange blockingExchange,
+            ServerExchange serverExchange, ResponseCache responseCache, SingleFlight singleFlight) {
+        super(serverProperties.getUrl() + API_PREFIX, blockingExchange, serverExchange, responseCache, singleFlight);
     }
 
-    public ResponseEntity<Object> getItemsOfUser(int userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ServerCall getItemsOfUser(int userId, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        return get("?from={from}&size={size}" + cursorQuery(parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(int userId, int itemId) {
+    public ServerCall getItemById(int userId, int itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsContainingText(int userId, String text, int from, int size) {
+    public ServerCall getItemsContainingText(int userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -49,15 +52,26 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createItem(int userId, CreateItemDto dto) {
+    public ServerCall createItem(int userId, CreateItemDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> patchItem(int userId, int itemId, PatchItemDto dto) {
+    public ServerStream importItems(int userId, @Nullable String contentType) {
+        HttpHeaders headers = ServerExchange.streamingHeaders(userId, contentType, MediaType.APPLICATION_JSON_VALUE);
+        return stream(HttpMethod.POST, "/import", null, headers);
+    }
+
+    public ServerStream exportItems(int userId, @Nullable String format) {
+        HttpHeaders headers = ServerExchange.streamingHeaders(userId, null, null);
+        return stream(HttpMethod.GET, format == null ? "/export" : "/export?format={format}",
+                format == null ? null : Map.of("format", format), headers);
+    }
+
+    public ServerCall patchItem(int userId, int itemId, PatchItemDto dto) {
         return patch("/" + itemId, userId, dto);
     }
 
-    public ResponseEntity<Object> createComment(int userId, int itemId, CreateCommentDto dto) {
+    public ServerCall createComment(int userId, int itemId, CreateCommentDto dto) {
         return post("/" + itemId + "/comment", userId, dto);
     }
 
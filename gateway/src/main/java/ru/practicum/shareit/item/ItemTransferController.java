@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.ServerStream;
+import ru.practicum.shareit.client.ServletStreams;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Passes item imports and exports through without holding their bodies in memory, servlet mode. Servlet streams
+ * block anyway, so they go through the blocking exchange whatever the client mode
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping(path = "/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ItemTransferController {
+
+    private final ItemClient itemClient;
+
+    @PostMapping("/import")
+    public ResponseEntity<byte[]> importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            HttpServletRequest request) throws IOException {
+        log.info("Пришел POST-запрос /items/import, userId={} с телом формата {}", userId, contentType);
+        ResponseEntity<byte[]> response = ServerStream.joinBody(itemClient.importItems(userId, contentType)
+                .open(ServletStreams.read(request)));
+        log.info("Ответ на POST-запрос /items/import, userId={} со статусом={}", userId, response.getStatusCode());
+        return response;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "format", required = false) String format,
+            HttpServletRequest request) throws IOException {
+        log.info("Пришел GET-запрос /items/export?format={}, userId={} без тела", format, userId);
+        ResponseEntity<StreamingResponseBody> response = ServletStreams.write(request,
+                itemClient.exportItems(userId, format).open(null));
+        log.info("Ответ на GET-запрос /items/export?format={}, userId={} со статусом={}", format, userId, response.getStatusCode());
+        return response;
+    }
+}
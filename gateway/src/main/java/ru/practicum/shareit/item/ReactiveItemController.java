@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.PatchItemDto;
+import ru.practicum.shareit.config.ReactiveGatewayCondition;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Counterpart of {@link ItemController} for the reactive mode
+ */
+@Slf4j
+@Validated
+@Controller
+@Conditional(ReactiveGatewayCondition.class)
+@RequiredArgsConstructor
+@RequestMapping(path = "/items")
+public class ReactiveItemController {
+
+    private final ItemClient itemClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getItemsOfUser(@RequestHeader("X-Sharer-User-Id") int userId,
+            @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
+            @Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor
+    ) {
+        log.info("Пришел GET-запрос /items?from={}&size={}&cursor={}, userId={} без тела", from, size, cursor, userId);
+        return itemClient.getItemsOfUser(userId, from, size, cursor).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /items?from={}&size={}&cursor={}, userId={} со статусом={}", from, size, cursor, userId, response.getStatusCode()));
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> getItemById(@RequestHeader("X-Sharer-User-Id") int userId,
+            @PathVariable int itemId) {
+        log.info("Пришел GET-запрос /items/{itemId={}}, userId={} без тела", itemId, userId);
+        return itemClient.getItemById(userId, itemId).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /items/{itemId={}}, userId={} со статусом={}", itemId, userId, response.getStatusCode()));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<byte[]>> getItemsContainingText(@RequestHeader("X-Sharer-User-Id") int userId,
+            @NotNull @RequestParam(value = "text", required = false) String text,
+            @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
+            @Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size
+    ) {
+        log.info("Пришел GET-запрос /items/search?text={}&from={}&size={}, userId={} без тела", text, from, size, userId);
+        return itemClient.getItemsContainingText(userId, text, from, size).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /items/search?text={}&from={}&size={}, userId={} со статусом={}", text, from, size, userId, response.getStatusCode()));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createItem(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestBody @Valid CreateItemDto dto) {
+        log.info("Пришел POST-запрос /items, userId={} с телом={}", userId, dto);
+        return itemClient.createItem(userId, dto).toMono()
+                .doOnNext(response -> log.info("Ответ на POST-запрос /items, userId={} со статусом={}", userId, response.getStatusCode()));
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> patchItem(@RequestHeader("X-Sharer-User-Id") int userId,
+            @PathVariable int itemId,
+            @RequestBody PatchItemDto dto
+    ) {
+        log.info("Пришел PATCH-запрос /items/{itemId={}}, userId={} с телом={}", itemId, userId, dto);
+        return itemClient.patchItem(userId, itemId, dto).toMono()
+                .doOnNext(response -> log.info("Ответ на PATCH-запрос /items/{itemId={}}, userId={} со статусом={}", itemId, userId, response.getStatusCode()));
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<byte[]>> createComment(@RequestHeader("X-Sharer-User-Id") int userId,
+            @PathVariable int itemId, @RequestBody @Valid CreateCommentDto dto) {
+        log.info("Пришел POST-запрос /items/{itemId={}}/comment, userId={} с телом={}", itemId, userId, dto);
+        return itemClient.createComment(userId, itemId, dto).toMono()
+                .doOnNext(response -> log.info("Ответ на POST-запрос /items/{itemId={}}/comment, userId={} со статусом={}", itemId, userId, response.getStatusCode()));
+    }
+
+}
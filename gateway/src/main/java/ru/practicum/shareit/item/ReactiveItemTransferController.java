@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerStream;
+
+/**
+ * Counterpart of {@link ItemTransferController} for the reactive mode
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping(path = "/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemTransferController {
+
+    private final ItemClient itemClient;
+
+    @PostMapping("/import")
+    public Mono<ResponseEntity<byte[]>> importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            ServerHttpRequest request) {
+        log.info("Пришел POST-запрос /items/import, userId={} с телом формата {}", userId, contentType);
+        return itemClient.importItems(userId, contentType).toMono(request.getBody())
+                .flatMap(ServerStream::joinBody)
+                .doOnNext(response -> log.info("Ответ на POST-запрос /items/import, userId={} со статусом={}", userId, response.getStatusCode()));
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportItems(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(name = "format", required = false) String format) {
+        log.info("Пришел GET-запрос /items/export?format={}, userId={} без тела", format, userId);
+        return itemClient.exportItems(userId, format).toMono(null)
+                .doOnNext(response -> log.info("Ответ на GET-запрос /items/export?format={}, userId={} со статусом={}", format, userId, response.getStatusCode()));
+    }
+}
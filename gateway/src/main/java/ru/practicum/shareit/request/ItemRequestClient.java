@@ -1,15 +1,18 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BlockingServerExchange;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,32 +20,28 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerClientProperties serverProperties, BlockingServerExchange blockingExchange,
+            ServerExchange serverExchange, ResponseCache responseCache, SingleFlight singleFlight) {
+        super(serverProperties.getUrl() + API_PREFIX, blockingExchange, serverExchange, responseCache, singleFlight);
     }
 
-    public ResponseEntity<Object> getRequests(int userId) {
+    public ServerCall getRequests(int userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequestsWithParams(int userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ServerCall getRequestsWithParams(int userId, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        return get("/all?from={from}&size={size}" + cursorQuery(parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(int userId, int requestId) {
+    public ServerCall getRequestById(int userId, int requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> createRequest(int userId, CreateItemRequestDto dto) {
+    public ServerCall createRequest(int userId, CreateItemRequestDto dto) {
         return post("", userId, dto);
     }
 
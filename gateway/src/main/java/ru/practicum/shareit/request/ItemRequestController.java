@@ -2,11 +2,13 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.config.BlockingGatewayCondition;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -15,6 +17,7 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 @Controller
+@Conditional(BlockingGatewayCondition.class)
 @RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
@@ -22,38 +25,39 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getRequests(@RequestHeader("X-Sharer-User-Id") int userId) {
+    public ResponseEntity<byte[]> getRequests(@RequestHeader("X-Sharer-User-Id") int userId) {
         log.info("Пришел GET-запрос /requests, userId={} без тела", userId);
-        ResponseEntity<Object> response = requestClient.getRequests(userId);
-        log.info("Ответ на GET-запрос /requests, userId={} с телом={}", userId, response);
+        ResponseEntity<byte[]> response = requestClient.getRequests(userId).send();
+        log.info("Ответ на GET-запрос /requests, userId={} со статусом={}", userId, response.getStatusCode());
         return response;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequestsWithParams(@RequestHeader("X-Sharer-User-Id") int userId,
+    public ResponseEntity<byte[]> getRequestsWithParams(@RequestHeader("X-Sharer-User-Id") int userId,
             @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size) {
-        log.info("Пришел GET-запрос /requests/all?from={}&size={}, userId={} без тела", from, size, userId);
-        ResponseEntity<Object> response = requestClient.getRequestsWithParams(userId, from, size);
-        log.info("Ответ на GET-запрос /requests/all?from={}&size={}, userId={} с телом={}", from, size, userId, response);
+            @Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Пришел GET-запрос /requests/all?from={}&size={}&cursor={}, userId={} без тела", from, size, cursor, userId);
+        ResponseEntity<byte[]> response = requestClient.getRequestsWithParams(userId, from, size, cursor).send();
+        log.info("Ответ на GET-запрос /requests/all?from={}&size={}&cursor={}, userId={} со статусом={}", from, size, cursor, userId, response.getStatusCode());
         return response;
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") int userId,
+    public ResponseEntity<byte[]> getRequestById(@RequestHeader("X-Sharer-User-Id") int userId,
             @PathVariable int requestId) {
         log.info("Пришел GET-запрос /requests/{requestId={}}, userId={} без тела", requestId, userId);
-        ResponseEntity<Object> response = requestClient.getRequestById(userId, requestId);
-        log.info("Ответ на GET-запрос /requests/{requestId={}}, userId={} с телом={}", requestId, userId, response);
+        ResponseEntity<byte[]> response = requestClient.getRequestById(userId, requestId).send();
+        log.info("Ответ на GET-запрос /requests/{requestId={}}, userId={} со статусом={}", requestId, userId, response.getStatusCode());
         return response;
     }
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader("X-Sharer-User-Id") int userId,
+    public ResponseEntity<byte[]> createRequest(@RequestHeader("X-Sharer-User-Id") int userId,
             @RequestBody @Valid CreateItemRequestDto dto) {
         log.info("Пришел POST-запрос /requests, userId={} с телом={}", userId, dto);
-        ResponseEntity<Object> response = requestClient.createRequest(userId, dto);
-        log.info("Ответ на POST-запрос /requests, userId={} с телом={}", userId, response);
+        ResponseEntity<byte[]> response = requestClient.createRequest(userId, dto).send();
+        log.info("Ответ на POST-запрос /requests, userId={} со статусом={}", userId, response.getStatusCode());
         return response;
     }
 
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.config.ReactiveGatewayCondition;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Counterpart of {@link ItemRequestController} for the reactive mode
+ */
+@Slf4j
+@Validated
+@Controller
+@Conditional(ReactiveGatewayCondition.class)
+@RequiredArgsConstructor
+@RequestMapping(path = "/requests")
+public class ReactiveItemRequestController {
+
+    private final ItemRequestClient requestClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getRequests(@RequestHeader("X-Sharer-User-Id") int userId) {
+        log.info("Пришел GET-запрос /requests, userId={} без тела", userId);
+        return requestClient.getRequests(userId).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /requests, userId={} со статусом={}", userId, response.getStatusCode()));
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<byte[]>> getRequestsWithParams(@RequestHeader("X-Sharer-User-Id") int userId,
+            @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0") int from,
+            @Positive @RequestParam(name = "size", required = false, defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Пришел GET-запрос /requests/all?from={}&size={}&cursor={}, userId={} без тела", from, size, cursor, userId);
+        return requestClient.getRequestsWithParams(userId, from, size, cursor).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /requests/all?from={}&size={}&cursor={}, userId={} со статусом={}", from, size, cursor, userId, response.getStatusCode()));
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<byte[]>> getRequestById(@RequestHeader("X-Sharer-User-Id") int userId,
+            @PathVariable int requestId) {
+        log.info("Пришел GET-запрос /requests/{requestId={}}, userId={} без тела", requestId, userId);
+        return requestClient.getRequestById(userId, requestId).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /requests/{requestId={}}, userId={} со статусом={}", requestId, userId, response.getStatusCode()));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createRequest(@RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestBody @Valid CreateItemRequestDto dto) {
+        log.info("Пришел POST-запрос /requests, userId={} с телом={}", userId, dto);
+        return requestClient.createRequest(userId, dto).toMono()
+                .doOnNext(response -> log.info("Ответ на POST-запрос /requests, userId={} со статусом={}", userId, response.getStatusCode()));
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.PatchUserDto;
+import ru.practicum.shareit.config.ReactiveGatewayCondition;
+
+import javax.validation.Valid;
+
+/**
+ * Counterpart of {@link UserController} for the reactive mode
+ */
+@Slf4j
+@Validated
+@Controller
+@Conditional(ReactiveGatewayCondition.class)
+@RequiredArgsConstructor
+@RequestMapping(path = "/users")
+public class ReactiveUserController {
+
+    private final UserClient userClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getUsers() {
+        log.info("Пришел GET-запрос /users без тела");
+        return userClient.getUsers().toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /users со статусом={}", response.getStatusCode()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> getUserById(@PathVariable int id) {
+        log.info("Пришел GET-запрос /users/{id={}} без тела", id);
+        return userClient.getUserById(id).toMono()
+                .doOnNext(response -> log.info("Ответ на GET-запрос /users/{id={}} со статусом={}", id, response.getStatusCode()));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createUser(@RequestBody @Valid CreateUserDto dto) {
+        log.info("Пришел POST-запрос /users с телом={}", dto);
+        return userClient.createUser(dto).toMono()
+                .doOnNext(response -> log.info("Ответ на POST-запрос /users со статусом={}", response.getStatusCode()));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> patchUser(@PathVariable int id,
+            @RequestBody PatchUserDto dto) {
+        log.info("Пришел PATCH-запрос /users/{id={}} с телом={}", id, dto);
+        return userClient.patchUser(id, dto).toMono()
+                .doOnNext(response -> log.info("Ответ на PATCH-запрос /users/{id={}} со статусом={}", id, response.getStatusCode()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> deleteUser(@PathVariable int id) {
+        log.info("Пришел DELETE-запрос /users/{id={}} без тела", id);
+        return userClient.deleteUser(id).toMono()
+                .doOnNext(response -> log.info("Ответ на DELETE-запрос /users/{id={}} со статусом={}", id, response.getStatusCode()));
+    }
+
+}
@@ -1,13 +1,14 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.BlockingServerExchange;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.PatchUserDto;
 
@@ -16,32 +17,28 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerClientProperties serverProperties, BlockingServerExchange blockingExchange,
+            ServerExchange serverExchange, ResponseCache responseCache, SingleFlight singleFlight) {
+        super(serverProperties.getUrl() + API_PREFIX, blockingExchange, serverExchange, responseCache, singleFlight);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public ServerCall getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(int id) {
+    public ServerCall getUserById(int id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> createUser(CreateUserDto dto) {
+    public ServerCall createUser(CreateUserDto dto) {
         return post("", dto);
     }
 
-    public ResponseEntity<Object> patchUser(int id, PatchUserDto dto) {
+    public ServerCall patchUser(int id, PatchUserDto dto) {
         return patch("/" + id, dto);
     }
 
-    public ResponseEntity<Object> deleteUser(int id) {
+    public ServerCall deleteUser(int id) {
         return delete("/" + id);
     }
 
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.client.BlockingServerExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.url=http://server"
+)
+@AutoConfigureMockMvc
+public class BookingControllerTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    BlockingServerExchange mockServerExchange;
+
+    @BeforeEach
+    void setup() {
+        when(mockServerExchange.exchange(eq(HttpMethod.POST), any(), any(), any()))
+                .thenAnswer(invocation -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("[]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldPassValidBulkToServer() {
+        ResponseEntity<String> response = postBulk("[" + row(1, 2) + "," + row(3, 4) + "]");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(mockServerExchange, times(1)).exchange(eq(HttpMethod.POST), any(), eq(1), any());
+    }
+
+    @Test
+    void shouldAnswerWithoutAsyncDispatchInBlockingMode() throws Exception {
+        mockMvc.perform(post("/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .content("[" + row(1, 2) + "]"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRejectBulkWithRowStartingInPast() {
+        ResponseEntity<String> response = postBulk("[" + row(1, 2) + "," + row(-2, 4) + "]");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(mockServerExchange, never()).exchange(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectBulkWithRowWithoutEnd() {
+        ResponseEntity<String> response = postBulk("[{\"itemId\":1,\"start\":\""
+                + LocalDateTime.now().plusDays(1) + "\"}]");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(mockServerExchange, never()).exchange(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectBulkOverLimit() {
+        String rows = String.join(",", Collections.nCopies(BookingController.MAX_BOOKINGS_IN_BULK + 1, row(1, 2)));
+
+        ResponseEntity<String> response = postBulk("[" + rows + "]");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(mockServerExchange, never()).exchange(any(), any(), any(), any());
+    }
+
+    private ResponseEntity<String> postBulk(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "1");
+        return restTemplate.exchange("/bookings/bulk", HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private static String row(int startInDays, int endInDays) {
+        LocalDateTime now = LocalDateTime.now();
+        return "{\"itemId\":1,\"start\":\"" + now.plusDays(startInDays) + "\",\"end\":\"" + now.plusDays(endInDays) + "\"}";
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serves clients on Netty while the requests to the server are sent by the blocking exchange. A blocking call made
+ * on an event loop thread fails in Reactor, so these requests only pass when the exchange leaves the event loop
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "shareit-gateway.client.mode=blocking"
+        }
+)
+public class ReactiveBlockingExchangeTests {
+
+    static final HttpServer server = startServer();
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ServerExchange serverExchange;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldExchangeWithServerOffEventLoop() {
+        webTestClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void shouldCallServerOnBoundedElasticThreadWhenSubscribedFromNonBlockingThread() {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/items/1");
+
+        String thread = Mono.defer(() -> serverExchange.exchange(HttpMethod.GET, uri, 1, null))
+                .map(response -> Thread.currentThread().getName())
+                .subscribeOn(Schedulers.parallel())
+                .block();
+
+        assertTrue(thread != null && thread.startsWith("boundedElastic"), thread);
+    }
+
+    @Test
+    void shouldStreamRequestBodyToServerOffEventLoop() {
+        webTestClient.post()
+                .uri("/items/import")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .bodyValue("{\"name\":\"Палатка\"}\n{\"name\":\"Котелок\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"imported\":2}");
+    }
+
+    @Test
+    void shouldStreamResponseBodyFromServerOffEventLoop() {
+        webTestClient.get()
+                .uri("/items/export")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/items/1", exchange -> respond(exchange, "{\"id\":1}"));
+            server.createContext("/items/import", exchange -> {
+                long lines;
+                try (InputStream body = exchange.getRequestBody()) {
+                    lines = new String(body.readAllBytes(), StandardCharsets.UTF_8).lines().count();
+                }
+                respond(exchange, "{\"imported\":" + lines + "}");
+            });
+            server.createContext("/items/export", exchange -> respond(exchange, "{\"id\":1}\n{\"id\":2}\n"));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ResponseCacheTests {
+
+    static final String SERVER_URL = "http://server/items";
+
+    static final URI ITEM_URI = URI.create(SERVER_URL + "/1");
+
+    @Mock
+    BlockingServerExchange mockBlockingExchange;
+
+    @Mock
+    ServerExchange mockServerExchange;
+
+    ResponseCache responseCache;
+
+    BaseClient client;
+
+    @BeforeEach
+    void setup() {
+        responseCache = new ResponseCache(Duration.ofMinutes(1), 100);
+        client = new BaseClient(SERVER_URL, mockBlockingExchange, mockServerExchange, responseCache,
+                new SingleFlight(false, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void shouldAnswerRepeatedGetFromCache() {
+        when(mockServerExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null))
+                .thenReturn(Mono.fromCallable(() -> response(200, "Палатка")));
+
+        client.get("/1", 1).toMono().block();
+        ResponseEntity<byte[]> cached = client.get("/1", 1).toMono().block();
+
+        assertEquals("Палатка", body(cached));
+        verify(mockServerExchange, times(1)).exchange(HttpMethod.GET, ITEM_URI, 1, null);
+    }
+
+    @Test
+    void shouldNotShareCachedResponsesBetweenUsers() {
+        when(mockServerExchange.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), isNull()))
+                .thenReturn(Mono.fromCallable(() -> response(200, "Палатка")));
+
+        client.get("/1", 1).toMono().block();
+        client.get("/1", 2).toMono().block();
+
+        verify(mockServerExchange, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), isNull());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        when(mockServerExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null))
+                .thenReturn(Mono.fromCallable(() -> response(404, "Не найдено")));
+
+        client.get("/1", 1).toMono().block();
+        client.get("/1", 1).toMono().block();
+
+        verify(mockServerExchange, times(2)).exchange(HttpMethod.GET, ITEM_URI, 1, null);
+    }
+
+    @Test
+    void shouldInvalidateOnSuccessfulWrite() {
+        when(mockServerExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null))
+                .thenReturn(Mono.fromCallable(() -> response(200, "Палатка")));
+        when(mockServerExchange.exchange(HttpMethod.PATCH, ITEM_URI, 1, "Котелок"))
+                .thenReturn(Mono.fromCallable(() -> response(200, "Котелок")));
+
+        client.get("/1", 1).toMono().block();
+        client.patch("/1", 1, "Котелок").toMono().block();
+        client.get("/1", 1).toMono().block();
+
+        verify(mockServerExchange, times(2)).exchange(HttpMethod.GET, ITEM_URI, 1, null);
+    }
+
+    @Test
+    void shouldKeepCacheOnFailedWrite() {
+        when(mockServerExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null))
+                .thenReturn(Mono.fromCallable(() -> response(200, "Палатка")));
+        when(mockServerExchange.exchange(HttpMethod.PATCH, ITEM_URI, 1, "Котелок"))
+                .thenReturn(Mono.fromCallable(() -> response(400, "Ошибка")));
+
+        client.get("/1", 1).toMono().block();
+        client.patch("/1", 1, "Котелок").toMono().block();
+        client.get("/1", 1).toMono().block();
+
+        verify(mockServerExchange, times(1)).exchange(HttpMethod.GET, ITEM_URI, 1, null);
+    }
+
+    @Test
+    void shouldNotCacheResponseReadWhileWriteInvalidated() {
+        AtomicInteger calls = new AtomicInteger();
+        when(mockServerExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null))
+                .thenReturn(Mono.fromCallable(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        // a write completes while the server is answering the first read
+                        responseCache.invalidateAll();
+                        return response(200, "Палатка");
+                    }
+                    return response(200, "Котелок");
+                }));
+
+        client.get("/1", 1).toMono().block();
+        ResponseEntity<byte[]> afterWrite = client.get("/1", 1).toMono().block();
+
+        assertEquals("Котелок", body(afterWrite));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldAnswerRepeatedBlockingGetFromCache() {
+        when(mockBlockingExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null)).thenReturn(response(200, "Палатка"));
+
+        client.get("/1", 1).send();
+        ResponseEntity<byte[]> cached = client.get("/1", 1).send();
+
+        assertEquals("Палатка", body(cached));
+        verify(mockBlockingExchange, times(1)).exchange(HttpMethod.GET, ITEM_URI, 1, null);
+    }
+
+    @Test
+    void shouldInvalidateOnSuccessfulBlockingWrite() {
+        when(mockBlockingExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null)).thenReturn(response(200, "Палатка"));
+        when(mockBlockingExchange.exchange(HttpMethod.PATCH, ITEM_URI, 1, "Котелок")).thenReturn(response(200, "Котелок"));
+
+        client.get("/1", 1).send();
+        client.patch("/1", 1, "Котелок").send();
+        client.get("/1", 1).send();
+
+        verify(mockBlockingExchange, times(2)).exchange(HttpMethod.GET, ITEM_URI, 1, null);
+    }
+
+    @Test
+    void shouldNotCacheBlockingResponseReadWhileWriteInvalidated() {
+        AtomicInteger calls = new AtomicInteger();
+        when(mockBlockingExchange.exchange(HttpMethod.GET, ITEM_URI, 1, null)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                responseCache.invalidateAll();
+                return response(200, "Палатка");
+            }
+            return response(200, "Котелок");
+        });
+
+        client.get("/1", 1).send();
+        ResponseEntity<byte[]> afterWrite = client.get("/1", 1).send();
+
+        assertEquals("Котелок", body(afterWrite));
+        assertEquals(2, calls.get());
+    }
+
+    private static ResponseEntity<byte[]> response(int status, String body) {
+        return ResponseEntity.status(status).body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
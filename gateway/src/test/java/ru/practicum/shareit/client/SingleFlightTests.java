@@ -0,0 +1,174 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTests {
+
+    static final String URI = "http://server/items/1";
+
+    SimpleMeterRegistry meterRegistry;
+
+    SingleFlight singleFlight;
+
+    AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(true, meterRegistry);
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void shouldShareOneUpstreamCallBetweenIdenticalRequestsInFlight() throws Exception {
+        Sinks.One<ResponseEntity<byte[]>> server = Sinks.one();
+
+        CompletableFuture<ResponseEntity<byte[]>> first = singleFlight.execute(URI, 1, counted(server::asMono)).toFuture();
+        CompletableFuture<ResponseEntity<byte[]>> second = singleFlight.execute(URI, 1, counted(server::asMono)).toFuture();
+        ResponseEntity<byte[]> response = ok("Палатка");
+        server.tryEmitValue(response);
+
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.counter("shareit.gateway.single.flight", "call", "upstream").count());
+        assertEquals(1.0, meterRegistry.counter("shareit.gateway.single.flight", "call", "coalesced").count());
+    }
+
+    @Test
+    void shouldNotCoalesceRequestsOfDifferentUsers() {
+        Sinks.One<ResponseEntity<byte[]>> server = Sinks.one();
+
+        singleFlight.execute(URI, 1, counted(server::asMono)).subscribe();
+        singleFlight.execute(URI, 2, counted(server::asMono)).subscribe();
+        singleFlight.execute(URI, null, counted(server::asMono)).subscribe();
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldCallUpstreamAgainOnceFlightCompleted() {
+        singleFlight.execute(URI, 1, counted(() -> Mono.just(ok("Палатка")))).block();
+        singleFlight.execute(URI, 1, counted(() -> Mono.just(ok("Котелок")))).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldForgetFailedFlight() {
+        Mono<ResponseEntity<byte[]>> failed =
+                singleFlight.execute(URI, 1, counted(() -> Mono.error(new IllegalStateException("Сервер недоступен"))));
+        assertThrows(IllegalStateException.class, failed::block);
+
+        ResponseEntity<byte[]> response = singleFlight.execute(URI, 1, counted(() -> Mono.just(ok("Палатка")))).block();
+
+        assertEquals("Палатка", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldForgetFlightCanceledByAllCallers() {
+        AtomicInteger canceledCalls = new AtomicInteger();
+        Disposable first = singleFlight.execute(URI, 1, counted(() -> Mono.<ResponseEntity<byte[]>>never()
+                .doOnCancel(canceledCalls::incrementAndGet))).subscribe();
+        Disposable second = singleFlight.execute(URI, 1, counted(Mono::never)).subscribe();
+        first.dispose();
+        second.dispose();
+
+        ResponseEntity<byte[]> response = singleFlight.execute(URI, 1, counted(() -> Mono.just(ok("Палатка")))).block();
+
+        assertEquals("Палатка", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, canceledCalls.get());
+    }
+
+    @Test
+    void shouldKeepFlightForCallersLeftAfterOneCanceled() throws Exception {
+        Sinks.One<ResponseEntity<byte[]>> server = Sinks.one();
+        Disposable first = singleFlight.execute(URI, 1, counted(server::asMono)).subscribe();
+        CompletableFuture<ResponseEntity<byte[]>> second = singleFlight.execute(URI, 1, counted(server::asMono)).toFuture();
+
+        first.dispose();
+        ResponseEntity<byte[]> response = ok("Палатка");
+        server.tryEmitValue(response);
+
+        assertSame(response, second.get());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldShareOneBlockingCallBetweenIdenticalRequestsInFlight() throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<byte[]>> server = new CompletableFuture<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<byte[]>> first = executor.submit(() -> singleFlight.executeBlocking(URI, 1, () -> {
+                upstreamCalls.incrementAndGet();
+                callStarted.countDown();
+                return server.join();
+            }));
+            callStarted.await();
+            Future<ResponseEntity<byte[]>> second = executor.submit(() -> singleFlight.executeBlocking(URI, 1, () -> {
+                upstreamCalls.incrementAndGet();
+                return ok("Котелок");
+            }));
+            while (meterRegistry.counter("shareit.gateway.single.flight", "call", "coalesced").count() < 1.0) {
+                Thread.yield();
+            }
+            ResponseEntity<byte[]> response = ok("Палатка");
+            server.complete(response);
+
+            assertSame(response, first.get());
+            assertSame(response, second.get());
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldForgetFailedBlockingCall() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.executeBlocking(URI, 1, () -> {
+            upstreamCalls.incrementAndGet();
+            throw new IllegalStateException("Сервер недоступен");
+        }));
+
+        ResponseEntity<byte[]> response = singleFlight.executeBlocking(URI, 1, () -> {
+            upstreamCalls.incrementAndGet();
+            return ok("Палатка");
+        });
+
+        assertEquals("Палатка", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private Supplier<Mono<ResponseEntity<byte[]>>> counted(Supplier<Mono<ResponseEntity<byte[]>>> call) {
+        return () -> {
+            upstreamCalls.incrementAndGet();
+            return call.get();
+        };
+    }
+
+    private static ResponseEntity<byte[]> ok(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
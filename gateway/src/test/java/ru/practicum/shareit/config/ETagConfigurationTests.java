@@ -0,0 +1,80 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.BlockingServerExchange;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.url=http://server"
+)
+public class ETagConfigurationTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @MockBean
+    BlockingServerExchange mockServerExchange;
+
+    @BeforeEach
+    void setup() {
+        when(mockServerExchange.exchange(eq(HttpMethod.GET), any(), any(), isNull()))
+                .thenAnswer(invocation -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithNotModified() {
+        ResponseEntity<String> first = restTemplate.exchange("/items/1", HttpMethod.GET,
+                new HttpEntity<>(userHeaders()), String.class);
+        String eTag = first.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        HttpHeaders headers = userHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> second = restTemplate.exchange("/items/1", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    void shouldAnswerStaleIfNoneMatchWithBody() {
+        HttpHeaders headers = userHeaders();
+        headers.setIfNoneMatch("\"0stale\"");
+
+        ResponseEntity<String> response = restTemplate.exchange("/items/1", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":1}", response.getBody());
+    }
+
+    private static HttpHeaders userHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+}
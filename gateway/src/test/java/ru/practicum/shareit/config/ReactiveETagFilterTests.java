@@ -0,0 +1,91 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerExchange;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "shareit-server.url=http://server"
+        }
+)
+public class ReactiveETagFilterTests {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @MockBean
+    ServerExchange mockServerExchange;
+
+    @BeforeEach
+    void setup() {
+        when(mockServerExchange.exchange(eq(HttpMethod.GET), any(), any(), isNull()))
+                .thenAnswer(invocation -> Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithNotModified() {
+        String eTag = webTestClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        webTestClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void shouldAnswerStaleIfNoneMatchWithBody() {
+        webTestClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .header("If-None-Match", "\"0stale\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void shouldNotTagErrorResponses() {
+        when(mockServerExchange.exchange(eq(HttpMethod.GET), any(), any(), isNull()))
+                .thenAnswer(invocation -> Mono.just(ResponseEntity.status(404)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"Не найдено\"}".getBytes(StandardCharsets.UTF_8))));
+
+        webTestClient.get()
+                .uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().doesNotExist("ETag");
+    }
+}
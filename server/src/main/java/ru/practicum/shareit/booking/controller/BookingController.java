@@ -2,14 +2,22 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BulkBookingDtoResponse;
 import ru.practicum.shareit.booking.dto.RequestBookingStates;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.mapping.BookingMapper;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.streaming.StreamFormat;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -19,35 +27,94 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final BookingMapper bookingMapper;
+    private final BookingExportService bookingExportService;
 
     @GetMapping
-    public Collection<BookingDtoResponse> getBookingsOfUserByState(
+    public ResponseEntity<Collection<BookingDtoResponse>> getBookingsOfUserByState(
             @RequestHeader("X-Sharer-User-Id") int bookerId,
             @RequestParam RequestBookingStates state,
             @RequestParam int from,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("Пришел GET-запрос /bookings?state={}&from={}&size={}, userId={} без тела", state, from, size, bookerId);
-        Collection<BookingDtoResponse> bookings = bookingMapper.bookingsToDtoResponses(
-                bookingService.findBookingsOfUserByState(bookerId, state, from, size)
-        );
-        log.info("Ответ на GET-запрос /bookings?state={}&from={}&size={}, userId={} с телом={}", state, from, size, bookerId, bookings);
-        return bookings;
+        log.info("Пришел GET-запрос /bookings?state={}&from={}&size={}&cursor={}, userId={} без тела", state, from, size, cursor, bookerId);
+        List<Booking> foundBookings = cursor == null
+                ? bookingService.findBookingsOfUserByState(bookerId, state, from, size)
+                : bookingService.findBookingsOfUserByState(bookerId, state, Cursor.decode(cursor), size);
+        Collection<BookingDtoResponse> bookings = bookingMapper.bookingsToDtoResponses(foundBookings);
+        log.info("Ответ на GET-запрос /bookings?state={}&from={}&size={}&cursor={}, userId={} с телом={}", state, from, size, cursor, bookerId, bookings);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextCursorHeaders(foundBookings, size, booking -> Cursor.of(booking.getStart(), booking.getId())))
+                .body(bookings);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDtoResponse> getBookingsOfItemsOwnerByState(
+    public ResponseEntity<Collection<BookingDtoResponse>> getBookingsOfItemsOwnerByState(
             @RequestHeader("X-Sharer-User-Id") int itemsOwnerId,
             @RequestParam RequestBookingStates state,
             @RequestParam int from,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("Пришел GET-запрос /bookings/owner?state={}&from={}&size={}, userId={} без тела", state, from, size, itemsOwnerId);
-        Collection<BookingDtoResponse> bookings = bookingMapper.bookingsToDtoResponses(
-                bookingService.findBookingsOfItemsOwnerByState(itemsOwnerId, state, from, size)
-        );
-        log.info("Ответ на GET-запрос /bookings/owner?state={}&from={}&size={}, userId={} с телом={}", state, from, size, itemsOwnerId, bookings);
-        return bookings;
+        log.info("Пришел GET-запрос /bookings/owner?state={}&from={}&size={}&cursor={}, userId={} без тела", state, from, size, cursor, itemsOwnerId);
+        List<Booking> foundBookings = cursor == null
+                ? bookingService.findBookingsOfItemsOwnerByState(itemsOwnerId, state, from, size)
+                : bookingService.findBookingsOfItemsOwnerByState(itemsOwnerId, state, Cursor.decode(cursor), size);
+        Collection<BookingDtoResponse> bookings = bookingMapper.bookingsToDtoResponses(foundBookings);
+        log.info("Ответ на GET-запрос /bookings/owner?state={}&from={}&size={}&cursor={}, userId={} с телом={}", state, from, size, cursor, itemsOwnerId, bookings);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextCursorHeaders(foundBookings, size, booking -> Cursor.of(booking.getStart(), booking.getId())))
+                .body(bookings);
+    }
+
+    @GetMapping("/count")
+    public long countBookingsOfUserByState(
+            @RequestHeader("X-Sharer-User-Id") int bookerId,
+            @RequestParam RequestBookingStates state
+    ) {
+        log.info("Пришел GET-запрос /bookings/count?state={}, userId={} без тела", state, bookerId);
+        long count = bookingService.countBookingsOfUserByState(bookerId, state);
+        log.info("Ответ на GET-запрос /bookings/count?state={}, userId={} с телом={}", state, bookerId, count);
+        return count;
+    }
+
+    @GetMapping("/owner/count")
+    public long countBookingsOfItemsOwnerByState(
+            @RequestHeader("X-Sharer-User-Id") int itemsOwnerId,
+            @RequestParam RequestBookingStates state
+    ) {
+        log.info("Пришел GET-запрос /bookings/owner/count?state={}, userId={} без тела", state, itemsOwnerId);
+        long count = bookingService.countBookingsOfItemsOwnerByState(itemsOwnerId, state);
+        log.info("Ответ на GET-запрос /bookings/owner/count?state={}, userId={} с телом={}", state, itemsOwnerId, count);
+        return count;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfUser(
+            @RequestHeader("X-Sharer-User-Id") int bookerId,
+            @RequestParam(name = "format", required = false) String formatName
+    ) {
+        log.info("Пришел GET-запрос /bookings/export?format={}, userId={} без тела", formatName, bookerId);
+        StreamFormat format = StreamFormat.ofName(formatName);
+        bookingExportService.validateUser(bookerId);
+        log.info("Ответ на GET-запрос /bookings/export?format={}, userId={} в формате={}", formatName, bookerId, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(output -> bookingExportService.exportBookingsOfUser(bookerId, format, output));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfItemsOwner(
+            @RequestHeader("X-Sharer-User-Id") int itemsOwnerId,
+            @RequestParam(name = "format", required = false) String formatName
+    ) {
+        log.info("Пришел GET-запрос /bookings/owner/export?format={}, userId={} без тела", formatName, itemsOwnerId);
+        StreamFormat format = StreamFormat.ofName(formatName);
+        bookingExportService.validateUser(itemsOwnerId);
+        log.info("Ответ на GET-запрос /bookings/owner/export?format={}, userId={} в формате={}", formatName, itemsOwnerId, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(output -> bookingExportService.exportBookingsOfItemsOwner(itemsOwnerId, format, output));
     }
 
     @GetMapping("/{bookingId}")
@@ -72,6 +139,18 @@ public class BookingController {
         return savedDto;
     }
 
+    @PostMapping("/bulk")
+    public List<BulkBookingDtoResponse> createBookings(
+            @RequestHeader("X-Sharer-User-Id") int bookerId,
+            @RequestBody List<BookingDtoRequest> dtos
+    ) {
+        log.info("Пришел POST-запрос /bookings/bulk, userId={} с {} арендами", bookerId, dtos.size());
+        List<BulkBookingDtoResponse> results =
+                bookingMapper.creationResultsToDtoResponses(bookingService.createAll(dtos, bookerId));
+        log.info("Ответ на POST-запрос /bookings/bulk, userId={} с телом={}", bookerId, results);
+        return results;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoResponse patchBooking(
             @RequestHeader("X-Sharer-User-Id") int userId,
@@ -2,5 +2,12 @@ package ru.practicum.shareit.booking.dto;
 
 public enum RequestBookingStates {
 
-    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED
+    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED;
+
+    /**
+     * Whether the bookings in this state depend only on stored data and not on the current time
+     */
+    public boolean isTimeIndependent() {
+        return this == ALL || this == WAITING || this == REJECTED;
+    }
 }
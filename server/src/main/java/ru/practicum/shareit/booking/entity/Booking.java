@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.entity;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.persistence.PooledSequenceGenerator;
 import ru.practicum.shareit.user.entity.User;
 
 import javax.persistence.*;
@@ -9,6 +13,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "booking")
+@NamedEntityGraph(
+        name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {@NamedAttributeNode("item"), @NamedAttributeNode("booker")}
+)
 @Getter
 @Setter
 @ToString
@@ -17,8 +25,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Booking {
 
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "booking_seq")
+    @GenericGenerator(name = "booking_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "booking_seq"))
     private Integer id;
 
     @Column(name = "start_at")
@@ -35,9 +47,13 @@ public class Booking {
     private Item item;
 
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
     @ToString.Exclude
     private User booker;
 
+    @Version
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
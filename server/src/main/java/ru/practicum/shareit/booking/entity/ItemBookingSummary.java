@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The last booking started before now and the next one starting after it among waiting or approved bookings
+ * of an item. The start of the next booking is kept in the row to find the summaries to roll forward
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@NamedEntityGraph(
+        name = ItemBookingSummary.WITH_BOOKINGS,
+        attributeNodes = {@NamedAttributeNode("lastBooking"), @NamedAttributeNode("nextBooking")}
+)
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingSummary {
+
+    public static final String WITH_BOOKINGS = "ItemBookingSummary.withBookings";
+
+    @Id
+    @Column(name = "item_id")
+    private Integer itemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    public void setNext(Booking booking) {
+        this.nextBooking = booking;
+        this.nextBookingStart = booking == null ? null : booking.getStart();
+    }
+
+    /**
+     * The next booking has started and should be the last one by now
+     */
+    public boolean isDue(LocalDateTime now) {
+        return nextBookingStart != null && !nextBookingStart.isAfter(now);
+    }
+
+    public boolean contains(Booking booking) {
+        return lastBooking != null && lastBooking.getId().equals(booking.getId())
+                || nextBooking != null && nextBooking.getId().equals(booking.getId());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ItemBookingSummary summary = (ItemBookingSummary) o;
+
+        return itemId.equals(summary.itemId);
+    }
+
+    @Override
+    public int hashCode() {
+        return itemId.hashCode();
+    }
+}
@@ -4,15 +4,19 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BulkBookingDtoResponse;
+import ru.practicum.shareit.booking.dto.ExportBookingDtoResponse;
 import ru.practicum.shareit.booking.dto.ShortBookingDtoResponse;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingCreationResult;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapping.ItemMapper;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.mapping.UserMapper;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,27 +32,33 @@ public interface BookingMapper {
     @Mapping(target = "bookerId", source = "booking.booker.id")
     ShortBookingDtoResponse bookingToShortDtoResponse(Booking booking);
 
+    @Mapping(target = "itemId", source = "booking.item.id")
+    @Mapping(target = "itemName", source = "booking.item.name")
+    @Mapping(target = "bookerId", source = "booking.booker.id")
+    ExportBookingDtoResponse bookingToExportDtoResponse(Booking booking);
+
     Booking dtoRequestToBooking(BookingDtoRequest dto);
 
     default Booking dtoRequestToBooking(BookingDtoRequest dto, Item item, User booker) {
-        validateDatesOfDto(dto);
         Booking booking = dtoRequestToBooking(dto);
+        // the database keeps microseconds, so the dates are checked as they will be stored
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        booking.setEnd(booking.getEnd().truncatedTo(ChronoUnit.MICROS));
+        validateDates(booking.getStart(), booking.getEnd());
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
         return booking;
     }
 
-    private void validateDatesOfDto(BookingDtoRequest dto) {
-        LocalDateTime start = dto.getStart();
-        LocalDateTime end = dto.getEnd();
+    private void validateDates(LocalDateTime start, LocalDateTime end) {
         if (end.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Попытка создания завершенной аренды");
         } else if (start.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Попытка создания уже начавшейся аренды");
         } else if (end.isEqual(start)) {
             throw new IllegalArgumentException("Попытка создания аренды, которая начинается и заканчивается одновременно");
-        } else if (end.isBefore(start)) {
+        } else if (!end.isAfter(start)) {
             throw new IllegalArgumentException("Попытка создания аренды, которая начинается раньше, чем кончается");
         }
     }
@@ -56,4 +66,10 @@ public interface BookingMapper {
     default List<BookingDtoResponse> bookingsToDtoResponses(List<Booking> bookings) {
         return bookings.stream().map(this::bookingToDtoResponse).collect(Collectors.toList());
     }
+
+    BulkBookingDtoResponse creationResultToDtoResponse(BookingCreationResult result);
+
+    default List<BulkBookingDtoResponse> creationResultsToDtoResponses(List<BookingCreationResult> results) {
+        return results.stream().map(this::creationResultToDtoResponse).collect(Collectors.toList());
+    }
 }
@@ -1,47 +1,212 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.entity.User;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
-    Page<Booking> findBookingsByItemIn(Collection<Item> items, Pageable pageable);
-
-    Page<Booking> findBookingsByBooker(User booker, Pageable pageable);
-
-    List<Booking> findBookingsByBooker(User booker);
-
-    @Query("SELECT b FROM Booking b WHERE b.item IN ?1 AND b.start <= now() AND b.end >= now()")
-    Page<Booking> findCurrentBookingsByItemIn(Collection<Item> items, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker = ?1 AND b.start <= now() AND b.end >= now()")
-    Page<Booking> findCurrentBookingsByBooker(User booker, Pageable pageable);
-
-    Page<Booking> findBookingsByItemInAndEndIsBefore(Collection<Item> items, LocalDateTime dateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerAndEndIsBefore(User booker, LocalDateTime dateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByItemInAndStartIsAfter(Collection<Item> items, LocalDateTime dateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerAndStartIsAfter(User booker, LocalDateTime dateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByItemInAndStatus(Collection<Item> items, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerAndStatus(User booker, BookingStatus status, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item = ?1 AND b.start < now() AND b.status < 2 ORDER BY b.start DESC NULLS LAST")
-    Page<Booking> findLastBookingByItem(Item item, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item = ?1 AND b.start > now() AND b.status < 2 ORDER BY b.start ASC NULLS LAST")
-    Page<Booking> findNextBookingByItem(Item item, Pageable pageable);
+    /**
+     * Seeks past the {@code (start, id)} cursor of the previous page, the listings are sorted by it in descending order
+     */
+    String AFTER_CURSOR = "AND b.start <= :start AND (b.start < :start OR b.id < :id) " +
+            "ORDER BY b.start DESC, b.id DESC";
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Integer id);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " + AFTER_CURSOR)
+    List<Booking> findBookingsByItemOwnerId(
+            @Param("ownerId") int ownerId,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker = :booker " + AFTER_CURSOR)
+    List<Booking> findBookingsByBooker(
+            @Param("booker") User booker,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    /**
+     * Reads the bookings with their items through a cursor in rounds of 500 rows, oldest first.
+     * The stream must be consumed and closed inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.booker.id = ?1 ORDER BY b.start, b.id")
+    Stream<Booking> streamBookingsByBookerId(int bookerId);
+
+    /**
+     * Same as {@link #streamBookingsByBookerId} for the bookings of all items of the owner
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i WHERE i.owner.id = ?1 ORDER BY b.start, b.id")
+    Stream<Booking> streamBookingsByItemOwnerId(int ownerId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND b.start <= now() AND b.end >= now() " + AFTER_CURSOR)
+    List<Booking> findCurrentBookingsByItemOwnerId(
+            @Param("ownerId") int ownerId,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker = :booker " +
+            "AND b.start <= now() AND b.end >= now() " + AFTER_CURSOR)
+    List<Booking> findCurrentBookingsByBooker(
+            @Param("booker") User booker,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.end < :dateTime " + AFTER_CURSOR)
+    List<Booking> findBookingsByItemOwnerIdAndEndIsBefore(
+            @Param("ownerId") int ownerId,
+            @Param("dateTime") LocalDateTime dateTime,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker = :booker AND b.end < :dateTime " + AFTER_CURSOR)
+    List<Booking> findBookingsByBookerAndEndIsBefore(
+            @Param("booker") User booker,
+            @Param("dateTime") LocalDateTime dateTime,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start > :dateTime " + AFTER_CURSOR)
+    List<Booking> findBookingsByItemOwnerIdAndStartIsAfter(
+            @Param("ownerId") int ownerId,
+            @Param("dateTime") LocalDateTime dateTime,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker = :booker AND b.start > :dateTime " + AFTER_CURSOR)
+    List<Booking> findBookingsByBookerAndStartIsAfter(
+            @Param("booker") User booker,
+            @Param("dateTime") LocalDateTime dateTime,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.status = :status " + AFTER_CURSOR)
+    List<Booking> findBookingsByItemOwnerIdAndStatus(
+            @Param("ownerId") int ownerId,
+            @Param("status") BookingStatus status,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker = :booker AND b.status = :status " + AFTER_CURSOR)
+    List<Booking> findBookingsByBookerAndStatus(
+            @Param("booker") User booker,
+            @Param("status") BookingStatus status,
+            @Param("start") LocalDateTime start,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    boolean existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+            User booker,
+            Item item,
+            BookingStatus status,
+            LocalDateTime dateTime
+    );
+
+    boolean existsBookingByItemAndStatusAndStartIsBeforeAndEndIsAfterAndIdNot(
+            Item item,
+            BookingStatus status,
+            LocalDateTime end,
+            LocalDateTime start,
+            int id
+    );
+
+    List<Booking> findBookingsByItemIdAndStatusAndEndIsAfter(int itemId, BookingStatus status, LocalDateTime dateTime);
+
+    List<Booking> findBookingsByItemIdInAndStatusAndEndIsAfter(
+            Collection<Integer> itemIds,
+            BookingStatus status,
+            LocalDateTime dateTime
+    );
+
+    long countBookingsByItemOwnerId(int ownerId);
+
+    long countBookingsByBooker(User booker);
+
+    @Query("SELECT count(b) FROM Booking b WHERE b.item.owner.id = ?1 AND b.start <= now() AND b.end >= now()")
+    long countCurrentBookingsByItemOwnerId(int ownerId);
+
+    @Query("SELECT count(b) FROM Booking b WHERE b.booker = ?1 AND b.start <= now() AND b.end >= now()")
+    long countCurrentBookingsByBooker(User booker);
+
+    long countBookingsByItemOwnerIdAndEndIsBefore(int ownerId, LocalDateTime dateTime);
+
+    long countBookingsByBookerAndEndIsBefore(User booker, LocalDateTime dateTime);
+
+    long countBookingsByItemOwnerIdAndStartIsAfter(int ownerId, LocalDateTime dateTime);
+
+    long countBookingsByBookerAndStartIsAfter(User booker, LocalDateTime dateTime);
+
+    long countBookingsByItemOwnerIdAndStatus(int ownerId, BookingStatus status);
+
+    long countBookingsByBookerAndStatus(User booker, BookingStatus status);
+
+    /**
+     * Returns at most two bookings per item: the last one started before {@code now}
+     * and the next one starting after it, both among waiting or approved bookings
+     */
+    @Query(value = "SELECT ranked.* FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (" +
+            "PARTITION BY b.item_id, CASE WHEN b.start_at < :now THEN 0 ELSE 1 END " +
+            "ORDER BY CASE WHEN b.start_at < :now THEN b.start_at END DESC, b.start_at ASC" +
+            ") AS rn FROM booking b " +
+            "WHERE b.item_id IN (:itemIds) AND b.start_at <> :now AND b.status < 2" +
+            ") ranked WHERE ranked.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByItemIdIn(
+            @Param("itemIds") Collection<Integer> itemIds,
+            @Param("now") LocalDateTime now
+    );
 }
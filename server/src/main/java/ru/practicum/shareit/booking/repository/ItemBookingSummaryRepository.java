@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.entity.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Integer> {
+
+    @EntityGraph(ItemBookingSummary.WITH_BOOKINGS)
+    List<ItemBookingSummary> findSummariesByItemIdIn(Collection<Integer> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId IN ?1 ORDER BY s.itemId")
+    List<ItemBookingSummary> findSummariesForUpdateByItemIdIn(Collection<Integer> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.nextBookingStart <= ?1 ORDER BY s.itemId")
+    List<ItemBookingSummary> findDueSummariesForUpdate(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The {@code ApprovedBookingCalendar} keeps the periods of approved bookings of recently booked items in memory,
+ * ordered by start, to reject overlapping bookings without a database round trip. It is only a pre-check:
+ * approved bookings never change their status, so a period missing here merely lets the booking through
+ * to the check made under the lock of the item. Periods that have ended are dropped as new ones are added,
+ * and items not checked for a while are dropped altogether
+ */
+@Component
+public class ApprovedBookingCalendar {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Integer, NavigableMap<LocalDateTime, ApprovedPeriod>> periodsByItemId;
+
+    public ApprovedBookingCalendar(
+            BookingRepository bookingRepository,
+            @Value("${shareit.booking.calendar.maximum-items:10000}") long maximumItems,
+            @Value("${shareit.booking.calendar.expire-after-access:1h}") Duration expireAfterAccess
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.periodsByItemId = Caffeine.newBuilder()
+                .maximumSize(maximumItems)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Checks the period of the booking against the approved periods of its item except the period of the booking itself
+     */
+    public boolean overlaps(Booking booking) {
+        NavigableMap<LocalDateTime, ApprovedPeriod> periods =
+                periodsByItemId.get(booking.getItem().getId(), this::loadPeriods);
+        // approved periods never overlap, so the one starting last before the end is the only candidate
+        Map.Entry<LocalDateTime, ApprovedPeriod> lastStartedBeforeEnd = periods.lowerEntry(booking.getEnd());
+        if (lastStartedBeforeEnd == null) {
+            return false;
+        }
+        ApprovedPeriod period = lastStartedBeforeEnd.getValue();
+        return period.getEnd().isAfter(booking.getStart()) && !period.getBookingId().equals(booking.getId());
+    }
+
+    /**
+     * Adds the period of the approved booking once the current transaction commits, a rolled back approval is never seen
+     */
+    public void addAfterCommit(Booking booking) {
+        final int itemId = booking.getItem().getId();
+        final LocalDateTime start = booking.getStart();
+        final ApprovedPeriod period = new ApprovedPeriod(booking.getId(), booking.getEnd());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(itemId, start, period);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(itemId, start, period);
+            }
+        });
+    }
+
+    private void add(int itemId, LocalDateTime start, ApprovedPeriod period) {
+        periodsByItemId.asMap().computeIfPresent(itemId, (id, periods) -> {
+            removeEnded(periods, LocalDateTime.now());
+            periods.put(start, period);
+            return periods;
+        });
+    }
+
+    /**
+     * Approved periods never overlap, so ordered by start they are ordered by end too and the ended ones come first
+     */
+    private static void removeEnded(NavigableMap<LocalDateTime, ApprovedPeriod> periods, LocalDateTime now) {
+        Map.Entry<LocalDateTime, ApprovedPeriod> first = periods.firstEntry();
+        while (first != null && !first.getValue().getEnd().isAfter(now)) {
+            periods.remove(first.getKey(), first.getValue());
+            first = periods.firstEntry();
+        }
+    }
+
+    private NavigableMap<LocalDateTime, ApprovedPeriod> loadPeriods(int itemId) {
+        NavigableMap<LocalDateTime, ApprovedPeriod> periods = new ConcurrentSkipListMap<>();
+        bookingRepository.findBookingsByItemIdAndStatusAndEndIsAfter(itemId, BookingStatus.APPROVED, LocalDateTime.now())
+                .forEach(booking -> periods.put(booking.getStart(), new ApprovedPeriod(booking.getId(), booking.getEnd())));
+        return periods;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class ApprovedPeriod {
+        private final Integer bookingId;
+        private final LocalDateTime end;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.entity.Booking;
+
+/**
+ * Outcome of one row of a bulk booking creation: the created booking or the reason the row was rejected
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingCreationResult {
+
+    private final int index;
+
+    @Nullable
+    private final Booking booking;
+
+    @Nullable
+    private final String error;
+
+    public static BookingCreationResult created(int index, Booking booking) {
+        return new BookingCreationResult(index, booking, null);
+    }
+
+    public static BookingCreationResult rejected(int index, String error) {
+        return new BookingCreationResult(index, null, error);
+    }
+
+    public boolean isCreated() {
+        return booking != null;
+    }
+}
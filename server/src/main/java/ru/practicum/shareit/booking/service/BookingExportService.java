@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.streaming.StreamFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookingExportService {
+
+    void validateUser(int userId);
+
+    void exportBookingsOfUser(int bookerId, StreamFormat format, OutputStream output) throws IOException;
+
+    void exportBookingsOfItemsOwner(int itemsOwnerId, StreamFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ExportBookingDtoResponse;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.mapping.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.streaming.RecordStreams;
+import ru.practicum.shareit.streaming.RecordWriter;
+import ru.practicum.shareit.streaming.StreamFormat;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the whole booking history of a booker or of an owner of items in chronological order.
+ * Bookings are read through a forward-only cursor and detached together with their items as soon as
+ * they are written, so the memory used does not depend on the length of the history
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExportServiceImpl implements BookingExportService {
+
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final RecordStreams recordStreams;
+    private final EntityManager entityManager;
+
+    @Override
+    public void validateUser(int userId) {
+        userService.findReferenceById(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsOfUser(int bookerId, StreamFormat format, OutputStream output) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamBookingsByBookerId(bookerId)) {
+            export(bookings, format, output);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsOfItemsOwner(int itemsOwnerId, StreamFormat format, OutputStream output) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamBookingsByItemOwnerId(itemsOwnerId)) {
+            export(bookings, format, output);
+        }
+    }
+
+    private void export(Stream<Booking> bookings, StreamFormat format, OutputStream output) throws IOException {
+        RecordWriter<ExportBookingDtoResponse> writer =
+                recordStreams.writer(format, ExportBookingDtoResponse.class, output);
+        Iterator<Booking> iterator = bookings.iterator();
+        while (iterator.hasNext()) {
+            Booking booking = iterator.next();
+            writer.write(bookingMapper.bookingToExportDtoResponse(booking));
+            entityManager.detach(booking);
+            entityManager.detach(booking.getItem());
+        }
+        writer.flush();
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.RequestBookingStates;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -10,10 +11,20 @@ public interface BookingService {
 
     Booking create(BookingDtoRequest dto, int bookerId);
 
+    List<BookingCreationResult> createAll(List<BookingDtoRequest> dtos, int bookerId);
+
     List<Booking> findBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state, int from, int size);
 
+    List<Booking> findBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state, Cursor after, int size);
+
     List<Booking> findBookingsOfUserByState(int bookerId, RequestBookingStates state, int from, int size);
 
+    List<Booking> findBookingsOfUserByState(int bookerId, RequestBookingStates state, Cursor after, int size);
+
+    long countBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state);
+
+    long countBookingsOfUserByState(int bookerId, RequestBookingStates state);
+
     Booking findById(int id, int userId);
 
     Booking update(int id, boolean isApproved, int userId);
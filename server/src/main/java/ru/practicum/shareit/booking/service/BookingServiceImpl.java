@@ -1,9 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.RequestBookingStates;
 import ru.practicum.shareit.booking.entity.Booking;
@@ -14,26 +23,45 @@ import ru.practicum.shareit.exception.BookingByOwnerOfItemException;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.exception.EntityIsNotAvailableException;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.time.LocalDateTime.now;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
-    private static final Sort ORDER_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    public static final String BOOKING_COUNTS_OF_BOOKER = "bookingCountsOfBooker";
+    public static final String BOOKING_COUNTS_OF_OWNER = "bookingCountsOfOwner";
+    public static final int MAX_BOOKINGS_IN_BULK = 500;
+
     private final UserService userService;
     private final ItemService itemService;
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
+    private final CacheManager cacheManager;
+    private final ApprovedBookingCalendar approvedBookingCalendar;
+    private final ItemBookingLock itemBookingLock;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public Booking create(BookingDtoRequest dto, int bookerId) {
         int itemId = dto.getItemId() == null ? -1 : dto.getItemId();
 
@@ -46,57 +74,234 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingByOwnerOfItemException("Попытка арендовать свою вещь");
         }
 
-        if (booking.getItem().getAvailable()) {
-            return bookingRepository.save(booking);
-        } else {
+        if (!booking.getItem().getAvailable()) {
             throw new EntityIsNotAvailableException("Аренда с этим предметом уже существует");
         }
+        checkApprovedBookingsDoNotOverlap(booking);
+
+        Booking savedBooking = bookingRepository.save(booking);
+        itemBookingSummaryService.onBookingsCreated(List.of(savedBooking));
+        evictBookingCounts(savedBooking);
+        eventPublisher.publishEvent(new ItemChangedEvent(savedBooking.getItem().getId()));
+        return savedBooking;
+    }
+
+    /**
+     * Creates the bookings of the list in one transaction. The booker and all the items are loaded up front, the items
+     * under the same row locks as a single creation takes, and each row is checked on its own: a rejected row
+     * gets its reason in the result and does not stop the others. The accepted bookings are inserted in JDBC batches
+     */
+    @Override
+    @Transactional
+    public List<BookingCreationResult> createAll(List<BookingDtoRequest> dtos, int bookerId) {
+        if (dtos.isEmpty() || dtos.size() > MAX_BOOKINGS_IN_BULK) {
+            throw new IllegalArgumentException("Количество аренд в запросе должно быть от 1 до " + MAX_BOOKINGS_IN_BULK);
+        }
+        User booker = userService.findById(bookerId);
+        Set<Integer> itemIds = dtos.stream()
+                .map(BookingDtoRequest::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Item> items = itemService.findAllByIdsForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Integer, List<Booking>> approvedBookings = items.isEmpty() ? Map.of() : bookingRepository
+                .findBookingsByItemIdInAndStatusAndEndIsAfter(items.keySet(), BookingStatus.APPROVED, now()).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        List<BookingCreationResult> results = new ArrayList<>(dtos.size());
+        List<Booking> createdBookings = new ArrayList<>();
+        for (int index = 0; index < dtos.size(); index++) {
+            try {
+                Booking booking = prepareBooking(dtos.get(index), booker, items, approvedBookings, results);
+                createdBookings.add(booking);
+                results.add(BookingCreationResult.created(index, booking));
+            } catch (IllegalArgumentException | EntityDoesNotExistException | BookingByOwnerOfItemException |
+                     EntityIsNotAvailableException e) {
+                results.add(BookingCreationResult.rejected(index, e.getMessage()));
+            }
+        }
+
+        bookingRepository.saveAll(createdBookings);
+        itemBookingSummaryService.onBookingsCreated(createdBookings);
+        createdBookings.stream()
+                .map(Booking::getItem)
+                .distinct()
+                .forEach(item -> {
+                    evictBookingCounts(BOOKING_COUNTS_OF_OWNER, item.getOwner().getId());
+                    eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+                });
+        evictBookingCounts(BOOKING_COUNTS_OF_BOOKER, bookerId);
+        return results;
+    }
+
+    private Booking prepareBooking(BookingDtoRequest dto, User booker, Map<Integer, Item> items,
+                                   Map<Integer, List<Booking>> approvedBookings,
+                                   List<BookingCreationResult> previousResults) {
+        Item item = dto.getItemId() == null ? null : items.get(dto.getItemId());
+        if (item == null) {
+            throw new EntityDoesNotExistException("Попытка получить несуществующий предмет");
+        }
+        if (dto.getStart() == null || dto.getEnd() == null) {
+            throw new IllegalArgumentException("Не указаны даты начала и окончания аренды");
+        }
+        Booking booking = bookingMapper.dtoRequestToBooking(dto, item, booker);
+
+        if (item.getOwner().getId().equals(booker.getId())) {
+            throw new BookingByOwnerOfItemException("Попытка арендовать свою вещь");
+        }
+        if (!item.getAvailable()) {
+            throw new EntityIsNotAvailableException("Аренда с этим предметом уже существует");
+        }
+        if (approvedBookings.getOrDefault(item.getId(), List.of()).stream()
+                .anyMatch(approved -> periodsOverlap(approved, booking))) {
+            throw new EntityIsNotAvailableException("Вещь уже арендована на пересекающийся период");
+        }
+        for (BookingCreationResult previous : previousResults) {
+            if (previous.isCreated() && previous.getBooking().getItem().equals(item)
+                    && periodsOverlap(previous.getBooking(), booking)) {
+                throw new EntityIsNotAvailableException(
+                        "Период аренды пересекается с арендой из строки " + previous.getIndex());
+            }
+        }
+        return booking;
+    }
+
+    private static boolean periodsOverlap(Booking first, Booking second) {
+        return first.getStart().isBefore(second.getEnd()) && first.getEnd().isAfter(second.getStart());
     }
 
     @Override
     public List<Booking> findBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state, int from, int size) {
-        List<Item> items = itemService.findItemsOfUser(itemsOwnerId);
-        final int page = getPage(from, size);
-        final PageRequest pageRequest = PageRequest.of(page, size, ORDER_BY_START_DESC);
+        userService.findReferenceById(itemsOwnerId);
+        return findBookingsOfItemsOwnerByState(itemsOwnerId, state, Cursor.HIGHEST, getPageRequest(from, size));
+    }
+
+    @Override
+    public List<Booking> findBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state, Cursor after, int size) {
+        userService.findReferenceById(itemsOwnerId);
+        return findBookingsOfItemsOwnerByState(itemsOwnerId, state, after, getPageRequest(0, size));
+    }
+
+    private List<Booking> findBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state, Cursor after, Pageable pageable) {
+        final LocalDateTime start = after.getPosition();
+        final int id = after.getId();
         switch (state) {
             case ALL:
-                return bookingRepository.findBookingsByItemIn(items, pageRequest).getContent();
+                return bookingRepository.findBookingsByItemOwnerId(itemsOwnerId, start, id, pageable);
             case CURRENT:
-                return bookingRepository.findCurrentBookingsByItemIn(items, pageRequest).getContent();
+                return bookingRepository.findCurrentBookingsByItemOwnerId(itemsOwnerId, start, id, pageable);
             case PAST:
-                return bookingRepository.findBookingsByItemInAndEndIsBefore(items, now(), pageRequest).getContent();
+                return bookingRepository.findBookingsByItemOwnerIdAndEndIsBefore(itemsOwnerId, now(), start, id, pageable);
             case FUTURE:
-                return bookingRepository.findBookingsByItemInAndStartIsAfter(items, now(), pageRequest).getContent();
+                return bookingRepository.findBookingsByItemOwnerIdAndStartIsAfter(itemsOwnerId, now(), start, id, pageable);
         }
         BookingStatus waitingOrRejected = BookingStatus.valueOf(state.name());
-        return bookingRepository.findBookingsByItemInAndStatus(items, waitingOrRejected, pageRequest).getContent();
+        return bookingRepository.findBookingsByItemOwnerIdAndStatus(itemsOwnerId, waitingOrRejected, start, id, pageable);
     }
 
     @Override
     public List<Booking> findBookingsOfUserByState(int bookerId, RequestBookingStates state, int from, int size) {
-        User booker = userService.findById(bookerId);
-        final LocalDateTime now = now();
-        final int page = getPage(from, size);
-        final PageRequest pageRequest = PageRequest.of(page, size, ORDER_BY_START_DESC);
+        User booker = userService.findReferenceById(bookerId);
+        return findBookingsOfUserByState(booker, state, Cursor.HIGHEST, getPageRequest(from, size));
+    }
+
+    @Override
+    public List<Booking> findBookingsOfUserByState(int bookerId, RequestBookingStates state, Cursor after, int size) {
+        User booker = userService.findReferenceById(bookerId);
+        return findBookingsOfUserByState(booker, state, after, getPageRequest(0, size));
+    }
+
+    private List<Booking> findBookingsOfUserByState(User booker, RequestBookingStates state, Cursor after, Pageable pageable) {
+        final LocalDateTime start = after.getPosition();
+        final int id = after.getId();
+        switch (state) {
+            case ALL:
+                return bookingRepository.findBookingsByBooker(booker, start, id, pageable);
+            case CURRENT:
+                return bookingRepository.findCurrentBookingsByBooker(booker, start, id, pageable);
+            case PAST:
+                return bookingRepository.findBookingsByBookerAndEndIsBefore(booker, now(), start, id, pageable);
+            case FUTURE:
+                return bookingRepository.findBookingsByBookerAndStartIsAfter(booker, now(), start, id, pageable);
+        }
+        BookingStatus waitingOrRejected = BookingStatus.valueOf(state.name());
+        return bookingRepository.findBookingsByBookerAndStatus(booker, waitingOrRejected, start, id, pageable);
+    }
+
+    @Override
+    @Cacheable(cacheNames = BOOKING_COUNTS_OF_OWNER, key = "#itemsOwnerId + '-' + #state", condition = "#state.timeIndependent")
+    public long countBookingsOfItemsOwnerByState(int itemsOwnerId, RequestBookingStates state) {
+        userService.findReferenceById(itemsOwnerId);
         switch (state) {
             case ALL:
-                return bookingRepository.findBookingsByBooker(booker, pageRequest).getContent();
+                return bookingRepository.countBookingsByItemOwnerId(itemsOwnerId);
             case CURRENT:
-                return bookingRepository.findCurrentBookingsByBooker(booker, pageRequest).getContent();
+                return bookingRepository.countCurrentBookingsByItemOwnerId(itemsOwnerId);
             case PAST:
-                return bookingRepository.findBookingsByBookerAndEndIsBefore(booker, now(), pageRequest).getContent();
+                return bookingRepository.countBookingsByItemOwnerIdAndEndIsBefore(itemsOwnerId, now());
             case FUTURE:
-                return bookingRepository.findBookingsByBookerAndStartIsAfter(booker, now(), pageRequest).getContent();
+                return bookingRepository.countBookingsByItemOwnerIdAndStartIsAfter(itemsOwnerId, now());
         }
         BookingStatus waitingOrRejected = BookingStatus.valueOf(state.name());
-        return bookingRepository.findBookingsByBookerAndStatus(booker, waitingOrRejected, pageRequest).getContent();
+        return bookingRepository.countBookingsByItemOwnerIdAndStatus(itemsOwnerId, waitingOrRejected);
     }
 
-    private int getPage(int fromElement, int size) {
+    @Override
+    @Cacheable(cacheNames = BOOKING_COUNTS_OF_BOOKER, key = "#bookerId + '-' + #state", condition = "#state.timeIndependent")
+    public long countBookingsOfUserByState(int bookerId, RequestBookingStates state) {
+        User booker = userService.findReferenceById(bookerId);
+        switch (state) {
+            case ALL:
+                return bookingRepository.countBookingsByBooker(booker);
+            case CURRENT:
+                return bookingRepository.countCurrentBookingsByBooker(booker);
+            case PAST:
+                return bookingRepository.countBookingsByBookerAndEndIsBefore(booker, now());
+            case FUTURE:
+                return bookingRepository.countBookingsByBookerAndStartIsAfter(booker, now());
+        }
+        BookingStatus waitingOrRejected = BookingStatus.valueOf(state.name());
+        return bookingRepository.countBookingsByBookerAndStatus(booker, waitingOrRejected);
+    }
+
+    private void evictBookingCounts(Booking booking) {
+        evictBookingCounts(BOOKING_COUNTS_OF_BOOKER, booking.getBooker().getId());
+        evictBookingCounts(BOOKING_COUNTS_OF_OWNER, booking.getItem().getOwner().getId());
+    }
+
+    /**
+     * Evicts the counts now and once more when the transaction completes, so that a count read by another
+     * transaction before the commit does not stay in the cache
+     */
+    private void evictBookingCounts(String cacheName, int userId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        evictBookingCounts(cache, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictBookingCounts(cache, userId);
+                }
+            });
+        }
+    }
+
+    private static void evictBookingCounts(Cache cache, int userId) {
+        for (RequestBookingStates state : RequestBookingStates.values()) {
+            if (state.isTimeIndependent()) {
+                cache.evict(userId + "-" + state);
+            }
+        }
+    }
+
+    private Pageable getPageRequest(int fromElement, int size) {
         if (fromElement < 0 || size < 1) {
             throw new IllegalArgumentException("Размер или элемент, с которого необходимо вернуть аренды, не должны быть меньше нуля");
         }
-        return fromElement / size;
+        return OffsetPageRequest.of(fromElement, size);
     }
 
     @Override
@@ -113,6 +318,12 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
+    @Retryable(
+            value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.retry.delay:20}", multiplier = 2)
+    )
     public Booking update(int id, boolean isApproved, int userId) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка обновить статус несуществующей аренды"));
@@ -122,11 +333,40 @@ public class BookingServiceImpl implements BookingService {
         if (BookingStatus.WAITING != booking.getStatus()) {
             throw new IllegalArgumentException("Попытка обновить ранее установленный статус");
         } else if (isApproved) {
+            checkApprovedBookingsDoNotOverlap(booking);
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        itemBookingSummaryService.onBookingStatusChanged(savedBooking);
+        evictBookingCounts(savedBooking);
+        eventPublisher.publishEvent(new ItemChangedEvent(savedBooking.getItem().getId()));
+        if (BookingStatus.APPROVED == savedBooking.getStatus()) {
+            approvedBookingCalendar.addAfterCommit(savedBooking);
+        }
+        return savedBooking;
+    }
+
+    /**
+     * Rejects the booking if its period overlaps an approved booking of the same item. The in-memory calendar
+     * answers most of the conflicts, the rest are checked in the database under the lock of the item row,
+     * which keeps concurrent approvals of one item from passing the check together. A concurrent change
+     * of the booking itself is caught by its version and the whole update is retried
+     */
+    private void checkApprovedBookingsDoNotOverlap(Booking booking) {
+        Item item = booking.getItem();
+        if (approvedBookingCalendar.overlaps(booking)) {
+            throw new EntityIsNotAvailableException("Вещь уже арендована на пересекающийся период");
+        }
+        itemBookingLock.lockUntilCompletion(item.getId());
+        itemService.findByIdForUpdate(item.getId());
+        // a new booking has no id yet, ids of saved bookings start from one
+        int id = booking.getId() == null ? 0 : booking.getId();
+        if (bookingRepository.existsBookingByItemAndStatusAndStartIsBeforeAndEndIsAfterAndIdNot(
+                item, BookingStatus.APPROVED, booking.getEnd(), booking.getStart(), id)) {
+            throw new EntityIsNotAvailableException("Вещь уже арендована на пересекающийся период");
+        }
     }
 
     private void checkUpdatePermissions(Booking booking, int userId) {
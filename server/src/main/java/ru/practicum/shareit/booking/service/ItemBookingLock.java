@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.service;
+
+/**
+ * The {@code ItemBookingLock} serializes the checks of booking periods of one item inside a single process
+ */
+public interface ItemBookingLock {
+
+    /**
+     * Takes the lock of the item and holds it until the current transaction completes
+     */
+    void lockUntilCompletion(int itemId);
+}
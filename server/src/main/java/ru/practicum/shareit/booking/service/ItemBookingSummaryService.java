@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.entity.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code ItemBookingSummaryService} keeps the last and the next booking of every item in one row, so a page
+ * of an item reads them by its key instead of sorting the bookings of the item twice. The row changes together
+ * with the bookings of the item and is rolled forward by a sweeper once the next booking starts. A row the sweeper
+ * has not reached yet is recomputed from the bookings on read, the summary is never stale for its readers
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    static final int SWEEP_BATCH_SIZE = 500;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional(readOnly = true)
+    public ItemBookingSummary findSummary(int itemId, LocalDateTime now) {
+        return findSummaries(List.of(itemId), now).get(itemId);
+    }
+
+    /**
+     * Returns the summaries of all the items, an item without waiting or approved bookings gets an empty one
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, ItemBookingSummary> findSummaries(Collection<Integer> itemIds, LocalDateTime now) {
+        Map<Integer, ItemBookingSummary> summaries = summaryRepository.findSummariesByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        Set<Integer> dueItemIds = summaries.values().stream()
+                .filter(summary -> summary.isDue(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet());
+        if (!dueItemIds.isEmpty()) {
+            // the rows stay as they are for the sweeper, the summaries returned are detached copies
+            Map<Integer, List<Booking>> bookingsByItemId = findLastAndNextBookings(dueItemIds, now);
+            dueItemIds.forEach(itemId -> summaries.put(itemId, summarize(
+                    ItemBookingSummary.builder().itemId(itemId).build(),
+                    bookingsByItemId.getOrDefault(itemId, Collections.emptyList()),
+                    now
+            )));
+        }
+        itemIds.forEach(itemId -> summaries.computeIfAbsent(itemId, id -> ItemBookingSummary.builder()
+                .itemId(id)
+                .build()));
+        return summaries;
+    }
+
+    /**
+     * Takes the new bookings into the summaries of their items. The caller holds the locks of the items,
+     * so a missing summary is not inserted by anyone else at the same time
+     */
+    @Transactional
+    public void onBookingsCreated(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, ItemBookingSummary> summaries = lockSummaries(bookings, true);
+        for (Booking booking : bookings) {
+            offer(summaries.get(booking.getItem().getId()), booking, now);
+        }
+    }
+
+    /**
+     * An approved booking stays in the summary of its item, a rejected or canceled one is replaced by the closest
+     * remaining booking
+     */
+    @Transactional
+    public void onBookingStatusChanged(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummaries(List.of(booking), booking.getStatus() == BookingStatus.APPROVED)
+                .get(booking.getItem().getId());
+        if (summary == null) {
+            return;
+        }
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            offer(summary, booking, now);
+        } else if (summary.contains(booking)) {
+            refresh(List.of(summary), now);
+        }
+    }
+
+    private Map<Integer, ItemBookingSummary> lockSummaries(Collection<Booking> bookings, boolean createMissing) {
+        Set<Integer> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        Map<Integer, ItemBookingSummary> summaries = summaryRepository.findSummariesForUpdateByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        if (createMissing) {
+            itemIds.stream()
+                    .filter(itemId -> !summaries.containsKey(itemId))
+                    .forEach(itemId -> summaries.put(itemId, summaryRepository.save(ItemBookingSummary.builder()
+                            .itemId(itemId)
+                            .build())));
+        }
+        return summaries;
+    }
+
+    private void offer(ItemBookingSummary summary, Booking booking, LocalDateTime now) {
+        if (summary.isDue(now)) {
+            refresh(List.of(summary), now);
+        } else if (booking.getStart().isAfter(now)) {
+            if (summary.getNextBooking() == null || booking.getStart().isBefore(summary.getNextBookingStart())) {
+                summary.setNext(booking);
+            }
+        } else if (booking.getStart().isBefore(now)) {
+            if (summary.getLastBooking() == null || booking.getStart().isAfter(summary.getLastBooking().getStart())) {
+                summary.setLastBooking(booking);
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.booking.summary.sweep-delay-millis:60000}",
+            fixedDelayString = "${shareit.booking.summary.sweep-delay-millis:60000}"
+    )
+    public void rollForward() {
+        rollForward(LocalDateTime.now());
+    }
+
+    /**
+     * Recomputes the summaries whose next booking has started by {@code now}, in batches
+     * of {@value #SWEEP_BATCH_SIZE} rows, each in its own transaction
+     */
+    public int rollForward(LocalDateTime now) {
+        int rolled = 0;
+        int batch;
+        do {
+            batch = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                List<ItemBookingSummary> dueSummaries =
+                        summaryRepository.findDueSummariesForUpdate(now, PageRequest.of(0, SWEEP_BATCH_SIZE));
+                refresh(dueSummaries, now);
+                return dueSummaries.size();
+            }));
+            rolled += batch;
+        } while (batch == SWEEP_BATCH_SIZE);
+        if (rolled > 0) {
+            log.info("Сводки аренд сдвинуты для {} вещей", rolled);
+        }
+        return rolled;
+    }
+
+    private void refresh(List<ItemBookingSummary> summaries, LocalDateTime now) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Booking>> bookingsByItemId = findLastAndNextBookings(summaries.stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet()), now);
+        summaries.forEach(summary -> summarize(
+                summary, bookingsByItemId.getOrDefault(summary.getItemId(), Collections.emptyList()), now
+        ));
+    }
+
+    private Map<Integer, List<Booking>> findLastAndNextBookings(Collection<Integer> itemIds, LocalDateTime now) {
+        return bookingRepository.findLastAndNextBookingsByItemIdIn(itemIds, now).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+
+    private static ItemBookingSummary summarize(ItemBookingSummary summary, List<Booking> lastAndNextBookings,
+                                                LocalDateTime now) {
+        summary.setLastBooking(null);
+        summary.setNext(null);
+        for (Booking booking : lastAndNextBookings) {
+            if (booking.getStart().isBefore(now)) {
+                summary.setLastBooking(booking);
+            } else {
+                summary.setNext(booking);
+            }
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code NoItemBookingLock} leaves the serialization to the lock of the item row in the database,
+ * which is the only one that works across several server instances
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.mode", havingValue = "none", matchIfMissing = true)
+public class NoItemBookingLock implements ItemBookingLock {
+
+    @Override
+    public void lockUntilCompletion(int itemId) {
+    }
+}
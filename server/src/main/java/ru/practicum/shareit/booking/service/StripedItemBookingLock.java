@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code StripedItemBookingLock} makes concurrent bookings of one item wait in memory instead of on the lock
+ * of the item row, for deployments with a single server instance. Items share a fixed number of locks by their id,
+ * so the memory it takes does not grow with the number of items
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.mode", havingValue = "striped")
+public class StripedItemBookingLock implements ItemBookingLock {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedItemBookingLock(@Value("${shareit.booking.lock.stripes:64}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Количество блокировок должно быть положительным");
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void lockUntilCompletion(int itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка предмета берется только внутри транзакции");
+        }
+        final ReentrantLock lock = stripes[Math.floorMod(itemId, stripes.length)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
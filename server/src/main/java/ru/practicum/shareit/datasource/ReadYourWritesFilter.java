@@ -0,0 +1,60 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * The {@code ReadYourWritesFilter} binds the user of the request to the {@link ReplicaRoutingContext}
+ * and marks the user of a modifying request as a recent writer before the request runs: the response may reach
+ * the client before the filter regains control, and the next read of the client must already go to the primary.
+ * A successful write marks the user again, so the window counts from its end
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final ReplicaRoutingContext context;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        context.setCallerId(parseUserId(request.getHeader(USER_ID_HEADER)));
+        try {
+            if (isModifying(request)) {
+                context.markCallerAsWriter();
+            }
+            filterChain.doFilter(request, response);
+            if (isModifying(request) && response.getStatus() < 400) {
+                context.markCallerAsWriter();
+            }
+        } finally {
+            context.clearCallerId();
+        }
+    }
+
+    private static boolean isModifying(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private static Integer parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * The {@code ReplicaRoutingContext} remembers the user on whose behalf the current thread works and the users
+ * that changed data recently. Their reads stay on the primary for a while, so they see their own writes
+ * even though the replica lags behind
+ */
+public class ReplicaRoutingContext {
+
+    private final ThreadLocal<Integer> callerId = new ThreadLocal<>();
+    private final Cache<Integer, Boolean> recentWriterIds;
+
+    public ReplicaRoutingContext(Duration readYourWritesWindow) {
+        this.recentWriterIds = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void setCallerId(Integer userId) {
+        callerId.set(userId);
+    }
+
+    public void clearCallerId() {
+        callerId.remove();
+    }
+
+    public void markCallerAsWriter() {
+        Integer userId = callerId.get();
+        if (userId != null) {
+            recentWriterIds.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isCallerRecentWriter() {
+        Integer userId = callerId.get();
+        return userId != null && recentWriterIds.getIfPresent(userId) != null;
+    }
+}
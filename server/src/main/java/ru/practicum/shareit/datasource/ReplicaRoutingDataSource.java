@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * The {@code ReplicaRoutingDataSource} sends read-only transactions to the replica and everything else
+ * to the primary. The transaction is only known to be read-only after it began, so the data source
+ * has to be wrapped into a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaRoutingContext context;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaRoutingContext context) {
+        this.context = context;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean isReadOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return isReadOnly && !context.isCallerRecentWriter() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -45,7 +46,11 @@ public class ErrorHandler {
     }
 
     @ResponseStatus(HttpStatus.CONFLICT)
-    @ExceptionHandler({EntityAlreadyExistsException.class, DataIntegrityViolationException.class})
+    @ExceptionHandler({
+            EntityAlreadyExistsException.class,
+            DataIntegrityViolationException.class,
+            OptimisticLockingFailureException.class
+    })
     public ErrorResponse sendConflict(RuntimeException e) {
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .error(e.getMessage())
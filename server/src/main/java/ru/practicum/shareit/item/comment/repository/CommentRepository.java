@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.comment.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
     List<Comment> findAllByItem(Item item);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item IN ?1 ORDER BY c.id")
+    List<Comment> findAllByItemIn(Collection<Item> items);
 }
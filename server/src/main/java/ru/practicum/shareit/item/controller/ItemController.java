@@ -2,7 +2,10 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comment.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.comment.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.comment.mapping.CommentMapper;
@@ -10,10 +13,17 @@ import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.LongItemDtoResponse;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemTransferService;
 import ru.practicum.shareit.item.mapping.ItemMapper;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.streaming.ImportReport;
+import ru.practicum.shareit.streaming.StreamFormat;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -22,19 +32,25 @@ import java.util.Collection;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemTransferService itemTransferService;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
 
     @GetMapping
-    public Collection<LongItemDtoResponse> getItemsOfUser(
+    public ResponseEntity<Collection<LongItemDtoResponse>> getItemsOfUser(
             @RequestHeader("X-Sharer-User-Id") int ownerId,
             @RequestParam int from,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("Пришел GET-запрос /items?from={}&size={}, userId={} без тела", from, size, ownerId);
-        Collection<LongItemDtoResponse> itemsDto = itemService.findLongItemDtosOfUser(ownerId, from, size);
-        log.info("Ответ на GET-запрос /items?from={}&size={}, userId={} с телом={}", from, size, ownerId, itemsDto);
-        return itemsDto;
+        log.info("Пришел GET-запрос /items?from={}&size={}&cursor={}, userId={} без тела", from, size, cursor, ownerId);
+        List<LongItemDtoResponse> itemsDto = cursor == null
+                ? itemService.findLongItemDtosOfUser(ownerId, from, size)
+                : itemService.findLongItemDtosOfUser(ownerId, Cursor.decode(cursor), size);
+        log.info("Ответ на GET-запрос /items?from={}&size={}&cursor={}, userId={} с телом={}", from, size, cursor, ownerId, itemsDto);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextCursorHeaders(itemsDto, size, itemDto -> Cursor.of(itemDto.getId())))
+                .body(itemsDto);
     }
 
     @GetMapping("/{itemId}")
@@ -70,6 +86,33 @@ public class ItemController {
         return savedDto;
     }
 
+    @PostMapping("/import")
+    public ImportReport importItems(
+            @RequestHeader("X-Sharer-User-Id") int ownerId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body
+    ) throws IOException {
+        log.info("Пришел POST-запрос /items/import, userId={} с телом в формате={}", ownerId, contentType);
+        ImportReport report = itemTransferService.importItems(ownerId, StreamFormat.of(contentType), body);
+        log.info("Ответ на POST-запрос /items/import, userId={}: добавлено={}, отклонено={}",
+                ownerId, report.getImported(), report.getRejected());
+        return report;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestHeader("X-Sharer-User-Id") int ownerId,
+            @RequestParam(name = "format", required = false) String formatName
+    ) {
+        log.info("Пришел GET-запрос /items/export?format={}, userId={} без тела", formatName, ownerId);
+        StreamFormat format = StreamFormat.ofName(formatName);
+        itemTransferService.validateOwner(ownerId);
+        log.info("Ответ на GET-запрос /items/export?format={}, userId={} в формате={}", formatName, ownerId, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(output -> itemTransferService.exportItems(ownerId, format, output));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDtoResponse patchItem(
             @RequestHeader("X-Sharer-User-Id") int ownerId,
@@ -1,23 +1,71 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.entity.User;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
     List<Item> findItemsByOwnerOrderById(User owner);
 
-    Page<Item> findItemsByOwnerOrderById(User owner, Pageable pageable);
+    /**
+     * Locks the row of the item until the end of the transaction, so that bookings of one item are checked one by one
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = ?1")
+    Optional<Item> findItemForUpdateById(int id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN ?1 ORDER BY i.id")
+    List<Item> findItemsForUpdateByIdIn(Collection<Integer> ids);
+
+    List<Item> findItemsByOwnerAndIdGreaterThanOrderById(User owner, int id, Pageable pageable);
+
+    /**
+     * Reads the items through a cursor in rounds of 500 rows, the stream must be consumed and closed
+     * inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item i WHERE i.owner.id = ?1 ORDER BY i.id")
+    Stream<Item> streamItemsByOwnerId(int ownerId);
 
     @Query("SELECT i FROM Item i WHERE " +
             "(lower(i.name) LIKE concat('%', lower(:text), '%') OR lower(i.description) LIKE concat('%', lower(:text), '%')) " +
             "AND (i.available = true)")
-    Page<Item> findItemsContainingTextAndAvailable(@Param("text") String text, Pageable pageable);
+    List<Item> findItemsContainingTextAndAvailable(@Param("text") String text, Pageable pageable);
+
+    /**
+     * PostgreSQL only: needs the {@code search_vector} column and its GIN index
+     */
+    @Query(value = "SELECT i.* FROM item i " +
+            "WHERE i.is_available AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id",
+            nativeQuery = true)
+    List<Item> findAvailableItemsMatchingTsQuery(@Param("query") String tsQuery, Pageable pageable);
+
+    /**
+     * PostgreSQL only: needs the {@code pg_trgm} extension, the pattern must have its wildcards escaped
+     */
+    @Query(value = "SELECT i.* FROM item i " +
+            "WHERE i.is_available " +
+            "AND (i.name ILIKE concat('%', :pattern, '%') OR i.description ILIKE concat('%', :pattern, '%')) " +
+            "ORDER BY greatest(similarity(i.name, :text), similarity(i.description, :text)) DESC, i.id",
+            nativeQuery = true)
+    List<Item> findAvailableItemsBySimilarity(@Param("pattern") String pattern, @Param("text") String text,
+                                              Pageable pageable);
 }
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code InMemoryItemSearchEngine} keeps an in-process inverted index from the trigrams of item names
+ * and descriptions to item ids, for databases without full-text support such as H2. The candidates are ranked
+ * and paged against the indexed texts, so only the items of the requested page are loaded. A query shorter than
+ * a trigram narrows nothing down and is left to the {@code LIKE} scan
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final Map<String, Set<Integer>> itemIdsByGram = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedItem> indexedItemsById = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexAll() {
+        itemRepository.findAll().forEach(this::index);
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()), Boolean.TRUE.equals(item.getAvailable()));
+        Set<String> grams = indexedItem.grams();
+        IndexedItem oldIndexedItem = indexedItemsById.put(item.getId(), indexedItem);
+        if (oldIndexedItem != null) {
+            oldIndexedItem.grams().stream()
+                    .filter(gram -> !grams.contains(gram))
+                    .forEach(gram -> itemIdsByGram.getOrDefault(gram, Collections.emptySet()).remove(item.getId()));
+        }
+        grams.forEach(gram -> itemIdsByGram.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet())
+                .add(item.getId()));
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        final String query = normalize(text);
+        if (query.length() < GRAM_LENGTH) {
+            return itemRepository.findItemsContainingTextAndAvailable(text, pageable);
+        }
+        final List<Integer> pageIds = findCandidateIds(query).stream()
+                .map(indexedItemsById::get)
+                .filter(Objects::nonNull)
+                .filter(IndexedItem::isAvailable)
+                .filter(indexedItem -> indexedItem.score(query) > 0)
+                .sorted(Comparator.comparingInt((IndexedItem indexedItem) -> indexedItem.score(query)).reversed()
+                        .thenComparing(IndexedItem::getId))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(IndexedItem::getId)
+                .collect(Collectors.toList());
+        if (pageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Map<Integer, Item> itemsById = itemRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Set<Integer> findCandidateIds(String query) {
+        Set<Integer> candidateIds = null;
+        for (String gram : grams(query)) {
+            Set<Integer> itemIds = itemIdsByGram.getOrDefault(gram, Collections.emptySet());
+            if (candidateIds == null) {
+                candidateIds = new HashSet<>(itemIds);
+            } else {
+                candidateIds.retainAll(itemIds);
+            }
+            if (candidateIds.isEmpty()) {
+                break;
+            }
+        }
+        return candidateIds;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class IndexedItem {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (name.contains(query)) {
+                score += 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.util.List;
+
+/**
+ * The {@code ItemSearchEngine} finds available items whose name or description matches a text,
+ * the most relevant items first. The implementation is chosen by the {@code shareit.search.engine} property
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Notifies the engine that the item was created or updated. Engines that search the database directly ignore it
+     */
+    default void index(Item item) {
+    }
+}
@@ -5,7 +5,9 @@ import ru.practicum.shareit.item.comment.entity.Comment;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.LongItemDtoResponse;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -16,8 +18,14 @@ public interface ItemService {
 
     List<LongItemDtoResponse> findLongItemDtosOfUser(int ownerId, int from, int size);
 
+    List<LongItemDtoResponse> findLongItemDtosOfUser(int ownerId, Cursor after, int size);
+
     Item findById(int id);
 
+    Item findByIdForUpdate(int id);
+
+    List<Item> findAllByIdsForUpdate(Collection<Integer> ids);
+
     LongItemDtoResponse findLongItemDtoById(int id, int userId);
 
     List<Item> findItemsContainingText(String text, int from, int size);
@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.ShortBookingDtoResponse;
-import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.entity.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.mapping.BookingMapper;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.exception.EntityIsNotAvailableException;
@@ -20,21 +25,30 @@ import ru.practicum.shareit.item.comment.mapping.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.LongItemDtoResponse;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.mapping.ItemMapper;
 import ru.practicum.shareit.item.mapping.ItemPatchUpdater;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
     private final UserService userService;
@@ -46,10 +60,15 @@ public class ItemServiceImpl implements ItemService {
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
     private final ItemPatchUpdater itemPatchUpdater;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemViewCache itemViewCache;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public Item create(ItemDtoRequest itemDto, int ownerId) {
-        User owner = userService.findById(ownerId);
+        User owner = userService.findReferenceById(ownerId);
         Integer requestId = itemDto.getRequestId();
         Item item;
         if (requestId == null) {
@@ -59,22 +78,51 @@ public class ItemServiceImpl implements ItemService {
             item = itemMapper.dtoRequestToItem(itemDto, owner, request);
             request.addItem(item);
         }
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        return savedItem;
     }
 
     @Override
     public List<Item> findItemsOfUser(int ownerId) {
-        User owner = userService.findById(ownerId);
+        User owner = userService.findReferenceById(ownerId);
         return itemRepository.findItemsByOwnerOrderById(owner);
     }
 
     @Override
     public List<LongItemDtoResponse> findLongItemDtosOfUser(int ownerId, int from, int size) {
-        final User owner = userService.findById(ownerId);
-        final int page = getPage(from, size);
-        final PageRequest pageRequest = PageRequest.of(page, size);
-        return itemRepository.findItemsByOwnerOrderById(owner, pageRequest).stream()
-                .map(item -> findLongItemDtoById(item.getId(), ownerId))
+        final User owner = userService.findReferenceById(ownerId);
+        return findLongItemDtosOfUser(owner, Cursor.LOWEST, getPageRequest(from, size));
+    }
+
+    @Override
+    public List<LongItemDtoResponse> findLongItemDtosOfUser(int ownerId, Cursor after, int size) {
+        final User owner = userService.findReferenceById(ownerId);
+        return findLongItemDtosOfUser(owner, after, getPageRequest(0, size));
+    }
+
+    private List<LongItemDtoResponse> findLongItemDtosOfUser(User owner, Cursor after, Pageable pageable) {
+        final List<Item> items = itemRepository
+                .findItemsByOwnerAndIdGreaterThanOrderById(owner, after.getId(), pageable);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        final Map<Integer, ItemBookingSummary> summariesByItemId = itemBookingSummaryService.findSummaries(itemIds, now);
+        final Map<Integer, List<Comment>> commentsByItemId = commentRepository.findAllByItemIn(items).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return items.stream()
+                .map(item -> makeLongItemDto(
+                        item,
+                        summariesByItemId.get(item.getId()),
+                        commentMapper.commentsToDtoResponses(
+                                commentsByItemId.getOrDefault(item.getId(), Collections.emptyList()))
+                ))
                 .collect(Collectors.toList());
     }
 
@@ -85,27 +133,45 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    public Item findByIdForUpdate(int id) {
+        return itemRepository.findItemForUpdateById(id)
+                .orElseThrow(() -> new EntityDoesNotExistException("Попытка получить несуществующий предмет"));
+    }
+
+    @Override
+    public List<Item> findAllByIdsForUpdate(Collection<Integer> ids) {
+        return ids.isEmpty() ? List.of() : itemRepository.findItemsForUpdateByIdIn(ids);
+    }
+
+    /**
+     * Read-write, so that a view is loaded from the primary: the view is cached for everyone after the change
+     * it would miss on a lagging replica has already been evicted
+     */
+    @Override
+    @Transactional
     public LongItemDtoResponse findLongItemDtoById(int id, int userId) {
+        return itemViewCache.get(id, userId, this::makeItemView);
+    }
+
+    private ItemView makeItemView(int id) {
         Item item = findById(id);
-        int ownerId = item.getOwner().getId();
         List<Comment> comments = commentRepository.findAllByItem(item);
         List<CommentDtoResponse> commentDtos = commentMapper.commentsToDtoResponses(comments);
-        if (ownerId != userId) {
-            return itemMapper.itemToLongDtoResponse(item, null, null, commentDtos);
-        }
-        return makeLongItemDto(item, commentDtos);
+        return new ItemView(
+                item.getOwner().getId(),
+                makeLongItemDto(item, itemBookingSummaryService.findSummary(id, LocalDateTime.now()), commentDtos),
+                itemMapper.itemToLongDtoResponse(item, null, null, commentDtos)
+        );
     }
 
-    private LongItemDtoResponse makeLongItemDto(Item item, List<CommentDtoResponse> commentDtos) {
-        Pageable pageable = PageRequest.of(0, 1);
-
-        Booking lastBooking = bookingRepository.findLastBookingByItem(item, pageable)
-                .stream().findFirst().orElse(null);
-        Booking nextBooking = bookingRepository.findNextBookingByItem(item, pageable)
-                .stream().findFirst().orElse(null);
-
-        ShortBookingDtoResponse lastBookingDto = bookingMapper.bookingToShortDtoResponse(lastBooking);
-        ShortBookingDtoResponse nextBookingDto = bookingMapper.bookingToShortDtoResponse(nextBooking);
+    /**
+     * The last and the next bookings come from the summary of the item, one row read by its key
+     */
+    private LongItemDtoResponse makeLongItemDto(
+            Item item, ItemBookingSummary summary, List<CommentDtoResponse> commentDtos
+    ) {
+        ShortBookingDtoResponse lastBookingDto = bookingMapper.bookingToShortDtoResponse(summary.getLastBooking());
+        ShortBookingDtoResponse nextBookingDto = bookingMapper.bookingToShortDtoResponse(summary.getNextBooking());
 
         return itemMapper.itemToLongDtoResponse(item, lastBookingDto, nextBookingDto, commentDtos);
     }
@@ -115,19 +181,23 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        final int page = getPage(from, size);
-        final PageRequest pageRequest = PageRequest.of(page, size);
-        return itemRepository.findItemsContainingTextAndAvailable(text, pageRequest).getContent();
+        return itemSearchEngine.search(text, getPageRequest(from, size));
     }
 
-    private int getPage(int fromElement, int size) {
+    private Pageable getPageRequest(int fromElement, int size) {
         if (fromElement < 0 || size < 1) {
             throw new IllegalArgumentException("Размер или элемент, с которого необходимо вернуть вещи, не должны быть меньше нуля");
         }
-        return fromElement / size;
+        return OffsetPageRequest.of(fromElement, size);
     }
 
     @Override
+    @Transactional
+    @Retryable(
+            value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.retry.delay:20}", multiplier = 2)
+    )
     public Item update(ItemDtoRequest dto, int id, int ownerId) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка обновить несуществующий предмет"));
@@ -135,7 +205,10 @@ public class ItemServiceImpl implements ItemService {
             throw new AccessException("Попытка обновить предмет, принадлежащий другому пользователю");
         }
         itemPatchUpdater.updateItem(item, dto);
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(savedItem.getId()));
+        return savedItem;
     }
 
     private boolean isOwner(Item item, int ownerId) {
@@ -143,22 +216,21 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public Comment createComment(CommentDtoRequest dto, int itemId, int authorId) {
         User author = userService.findById(authorId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка оставить комментарий у несуществующей вещи"));
-        if (bookingRepository.findBookingsByBooker(author).stream()
-                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED &&
-                                    booking.getStart().isBefore(LocalDateTime.now())
-                )
-                .map(Booking::getItem)
-                .noneMatch(item::equals)
-        ) {
+        if (!bookingRepository.existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+                author, item, BookingStatus.APPROVED, LocalDateTime.now()
+        )) {
             throw new EntityIsNotAvailableException("У данного пользователя нет прав для оставления комментария у этой вещи");
         }
 
         Comment comment = commentMapper.dtoRequestToComment(dto, item, author);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
+        return savedComment;
     }
 
 }
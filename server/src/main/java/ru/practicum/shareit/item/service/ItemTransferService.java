@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.streaming.ImportReport;
+import ru.practicum.shareit.streaming.StreamFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ItemTransferService {
+
+    ImportReport importItems(int ownerId, StreamFormat format, InputStream input) throws IOException;
+
+    void validateOwner(int ownerId);
+
+    void exportItems(int ownerId, StreamFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.mapping.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.entity.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.streaming.ImportReport;
+import ru.practicum.shareit.streaming.RecordReader;
+import ru.practicum.shareit.streaming.RecordStreams;
+import ru.practicum.shareit.streaming.RecordWriter;
+import ru.practicum.shareit.streaming.StreamFormat;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports and exports all items of an owner as a stream of lines. The import is saved in chunks of
+ * {@value #IMPORT_CHUNK_SIZE} lines, each in its own transaction, so a failed import keeps the chunks saved before
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemTransferServiceImpl implements ItemTransferService {
+
+    static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_NAME_LENGTH = 256;
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemMapper itemMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final RecordStreams recordStreams;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public ImportReport importItems(int ownerId, StreamFormat format, InputStream input) throws IOException {
+        User owner = userService.findReferenceById(ownerId);
+        RecordReader<ItemDtoRequest> reader = recordStreams.reader(format, ItemDtoRequest.class, input);
+        ImportReport report = new ImportReport();
+        List<RecordReader.Line<ItemDtoRequest>> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        RecordReader.Line<ItemDtoRequest> line;
+        while ((line = reader.next()) != null) {
+            String error = line.getError() != null ? line.getError() : validate(line.getRecord());
+            if (error != null) {
+                report.reject(line.getNumber(), error);
+                continue;
+            }
+            chunk.add(line);
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                saveChunk(chunk, owner, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, owner, report);
+        }
+        return report;
+    }
+
+    private String validate(ItemDtoRequest dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "Не указано название вещи";
+        }
+        if (dto.getName().length() > MAX_NAME_LENGTH) {
+            return "Название вещи длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        if (dto.getDescription() == null || dto.getDescription().isBlank()) {
+            return "Не указано описание вещи";
+        }
+        if (dto.getAvailable() == null) {
+            return "Не указана доступность вещи";
+        }
+        return null;
+    }
+
+    private void saveChunk(List<RecordReader.Line<ItemDtoRequest>> chunk, User owner, ImportReport report) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, ItemRequest> requests = requestRepository.findAllById(chunk.stream()
+                            .map(line -> line.getRecord().getRequestId())
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+            List<Item> items = new ArrayList<>(chunk.size());
+            for (RecordReader.Line<ItemDtoRequest> line : chunk) {
+                Integer requestId = line.getRecord().getRequestId();
+                ItemRequest request = requestId == null ? null : requests.get(requestId);
+                if (requestId != null && request == null) {
+                    report.reject(line.getNumber(), "Попытка получения несуществующего запроса");
+                    continue;
+                }
+                Item item = itemMapper.dtoRequestToItem(line.getRecord(), owner, request);
+                if (request != null) {
+                    request.addItem(item);
+                }
+                items.add(item);
+            }
+            itemRepository.saveAll(items);
+            entityManager.flush();
+            items.forEach(itemSearchEngine::index);
+            report.addImported(items.size());
+        });
+    }
+
+    @Override
+    public void validateOwner(int ownerId) {
+        userService.findReferenceById(ownerId);
+    }
+
+    /**
+     * Items are read through a forward-only cursor and detached as soon as they are written,
+     * so the memory used does not depend on the number of items
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportItems(int ownerId, StreamFormat format, OutputStream output) throws IOException {
+        RecordWriter<ItemDtoResponse> writer = recordStreams.writer(format, ItemDtoResponse.class, output);
+        try (Stream<Item> items = itemRepository.streamItemsByOwnerId(ownerId)) {
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                Item item = iterator.next();
+                writer.write(itemMapper.itemToDtoResponse(item));
+                entityManager.detach(item);
+            }
+        }
+        writer.flush();
+    }
+}
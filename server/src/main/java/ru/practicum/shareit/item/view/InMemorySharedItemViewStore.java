@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code InMemorySharedItemViewStore} stands in for a shared store such as Redis when running locally
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.view-cache.shared", havingValue = "memory")
+public class InMemorySharedItemViewStore implements SharedItemViewStore {
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public ItemView get(int itemId) {
+        Entry entry = entries.get(itemId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.nanoTime()) {
+            entries.remove(itemId, entry);
+            return null;
+        }
+        return entry.view;
+    }
+
+    @Override
+    public void put(int itemId, ItemView view, Duration timeToLive) {
+        entries.put(itemId, new Entry(view, System.nanoTime() + timeToLive.toNanos()));
+    }
+
+    @Override
+    public void evict(int itemId) {
+        entries.remove(itemId);
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final ItemView view;
+        private final long expiresAt;
+    }
+}
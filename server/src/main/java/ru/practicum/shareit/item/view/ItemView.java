@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.LongItemDtoResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The {@code ItemView} holds the assembled page of an item as its owner and as any other user see it
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemView {
+
+    private final int ownerId;
+    private final LongItemDtoResponse ownerView;
+    private final LongItemDtoResponse guestView;
+
+    public LongItemDtoResponse viewFor(int userId) {
+        return userId == ownerId ? ownerView : guestView;
+    }
+
+    /**
+     * The view may be kept no longer than the maximum time to live and only until the next booking starts,
+     * since then it becomes the last booking
+     */
+    public Duration timeToLive(Duration maximum) {
+        if (ownerView.getNextBooking() == null) {
+            return maximum;
+        }
+        Duration untilNextBooking = Duration.between(LocalDateTime.now(), ownerView.getNextBooking().getStart());
+        if (untilNextBooking.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilNextBooking.compareTo(maximum) < 0 ? untilNextBooking : maximum;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.view;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.LongItemDtoResponse;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code ItemViewCache} keeps assembled item pages in a near cache of the instance in front of
+ * an optional {@link SharedItemViewStore}. A view is dropped on an {@link ItemChangedEvent} and expires
+ * by itself when its next booking starts. Other instances only learn about a change through the shared
+ * store and the time to live of their near caches, which is why the latter is short
+ */
+@Component
+public class ItemViewCache {
+
+    private final SharedItemViewStore sharedStore;
+    private final Duration timeToLive;
+    private final Cache<Integer, ItemView> nearCache;
+
+    public ItemViewCache(
+            SharedItemViewStore sharedStore,
+            @Value("${shareit.item.view-cache.time-to-live:1m}") Duration timeToLive,
+            @Value("${shareit.item.view-cache.maximum-size:10000}") long maximumSize
+    ) {
+        this.sharedStore = sharedStore;
+        this.timeToLive = timeToLive;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Integer, ItemView>() {
+                    @Override
+                    public long expireAfterCreate(Integer itemId, ItemView view, long currentTime) {
+                        return view.timeToLive(timeToLive).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer itemId, ItemView view, long currentTime, long currentDuration) {
+                        return view.timeToLive(timeToLive).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer itemId, ItemView view, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public LongItemDtoResponse get(int itemId, int userId, IntFunction<ItemView> loader) {
+        return nearCache.get(itemId, id -> loadThroughSharedStore(id, loader)).viewFor(userId);
+    }
+
+    /**
+     * Evicts the view now and once more when the transaction completes, so that a view assembled
+     * before the commit does not outlive the change
+     */
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        final int itemId = event.getItemId();
+        evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    private ItemView loadThroughSharedStore(int itemId, IntFunction<ItemView> loader) {
+        ItemView view = sharedStore.get(itemId);
+        if (view == null) {
+            view = loader.apply(itemId);
+            sharedStore.put(itemId, view, view.timeToLive(timeToLive));
+        }
+        return view;
+    }
+
+    private void evict(int itemId) {
+        sharedStore.evict(itemId);
+        nearCache.invalidate(itemId);
+    }
+}
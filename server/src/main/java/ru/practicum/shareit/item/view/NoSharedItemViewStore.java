@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.view;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The {@code NoSharedItemViewStore} leaves the views in the near cache of every instance only
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.view-cache.shared", havingValue = "none", matchIfMissing = true)
+public class NoSharedItemViewStore implements SharedItemViewStore {
+
+    @Override
+    public ItemView get(int itemId) {
+        return null;
+    }
+
+    @Override
+    public void put(int itemId, ItemView view, Duration timeToLive) {
+    }
+
+    @Override
+    public void evict(int itemId) {
+    }
+}
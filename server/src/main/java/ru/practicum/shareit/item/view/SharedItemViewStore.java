@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.view;
+
+import java.time.Duration;
+
+/**
+ * The {@code SharedItemViewStore} is the second tier of the item view cache, shared by all server instances
+ */
+public interface SharedItemViewStore {
+
+    /**
+     * @return the stored view or {@code null} if there is none
+     */
+    ItemView get(int itemId);
+
+    void put(int itemId, ItemView view, Duration timeToLive);
+
+    void evict(int itemId);
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The {@code Cursor} is an opaque position in a listing: the sort key and the id of the last returned element.
+ * The next page is read by seeking past it through an index instead of skipping the previous rows with OFFSET
+ */
+@ToString
+@EqualsAndHashCode
+public final class Cursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * The position before the first element of a listing sorted by a date and an id in descending order
+     */
+    public static final Cursor HIGHEST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+
+    /**
+     * The position before the first element of a listing sorted by an id in ascending order
+     */
+    public static final Cursor LOWEST = new Cursor(null, 0);
+
+    private static final String SEPARATOR = "~";
+
+    private final LocalDateTime position;
+    private final int id;
+
+    private Cursor(LocalDateTime position, int id) {
+        this.position = position;
+        this.id = id;
+    }
+
+    /**
+     * The position is truncated to microseconds, the precision timestamps are stored with, so that a cursor made of
+     * an entity that was not reloaded from the database still points at its row
+     */
+    public static Cursor of(LocalDateTime position, int id) {
+        return new Cursor(position.truncatedTo(ChronoUnit.MICROS), id);
+    }
+
+    public static Cursor of(int id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return of(Integer.parseInt(decoded));
+            }
+            LocalDateTime position = LocalDateTime.parse(decoded.substring(0, separatorIndex));
+            return of(position, Integer.parseInt(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+    }
+
+    /**
+     * Returns headers with the cursor of the last element when the page is full, so more elements may follow
+     */
+    public static <T> HttpHeaders nextCursorHeaders(List<T> page, int size, Function<T, Cursor> cursorOfElement) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!page.isEmpty() && page.size() >= size) {
+            headers.set(NEXT_CURSOR_HEADER, cursorOfElement.apply(page.get(page.size() - 1)).encode());
+        }
+        return headers;
+    }
+
+    public String encode() {
+        String value = position == null ? String.valueOf(id) : position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getPosition() {
+        if (position == null) {
+            throw new IllegalArgumentException("Курсор не содержит позиции для этого списка");
+        }
+        return position;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.persistence;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Takes ids from a database sequence in blocks of {@value #ALLOCATION_SIZE} and hands them out in memory (pooled-lo),
+ * so that inserts are not flushed one by one as with identity columns and can be batched.
+ * The sequences are created with the same increment by the migrations, the size is not configurable:
+ * a block size other than the increment would hand out ids of other blocks
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "ru.practicum.shareit.persistence.PooledSequenceGenerator";
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        params.setProperty(INCREMENT_PARAM, String.valueOf(ALLOCATION_SIZE));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.persistence;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.RetryConfiguration;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * A method both {@code @Retryable} and {@code @Transactional} must start a new transaction on every attempt:
+ * an optimistic locking failure surfaces when the transaction commits, so the retry has to wrap the commit.
+ * Both advices are ordered lowest by default, which leaves their nesting undefined, the retry is put before
+ */
+@Configuration
+@EnableTransactionManagement(proxyTargetClass = true, order = RetryAdviceConfiguration.TRANSACTION_ADVICE_ORDER)
+public class RetryAdviceConfiguration {
+
+    static final int TRANSACTION_ADVICE_ORDER = Ordered.LOWEST_PRECEDENCE;
+    static final int RETRY_ADVICE_ORDER = TRANSACTION_ADVICE_ORDER - 1;
+
+    @Bean
+    public static BeanPostProcessor retryAdviceOrderPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RetryConfiguration) {
+                    ((RetryConfiguration) bean).setOrder(RETRY_ADVICE_ORDER);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.mapping.ItemRequestMapper;
 
@@ -30,17 +33,21 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoResponse> getRequestsWithParams(
+    public ResponseEntity<List<ItemRequestDtoResponse>> getRequestsWithParams(
             @RequestHeader("X-Sharer-User-Id") int userId,
             @RequestParam int from,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("Пришел GET-запрос /requests/all?from={}&size={}, userId={} без тела", from, size, userId);
-        List<ItemRequestDtoResponse> dtos = requestMapper.itemRequestsToResponseDtos(
-                requestService.findRequestsOfOtherUsers(userId, from, size)
-        );
-        log.info("Ответ на GET-запрос /requests/all?from={}&size={}, userId={} с телом={}", from, size, userId, dtos);
-        return dtos;
+        log.info("Пришел GET-запрос /requests/all?from={}&size={}&cursor={}, userId={} без тела", from, size, cursor, userId);
+        List<ItemRequest> requests = cursor == null
+                ? requestService.findRequestsOfOtherUsers(userId, from, size)
+                : requestService.findRequestsOfOtherUsers(userId, Cursor.decode(cursor), size);
+        List<ItemRequestDtoResponse> dtos = requestMapper.itemRequestsToResponseDtos(requests);
+        log.info("Ответ на GET-запрос /requests/all?from={}&size={}&cursor={}, userId={} с телом={}", from, size, cursor, userId, dtos);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextCursorHeaders(requests, size, request -> Cursor.of(request.getCreated(), request.getId())))
+                .body(dtos);
     }
 
     @GetMapping("/{requestId}")
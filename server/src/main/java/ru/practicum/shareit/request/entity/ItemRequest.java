@@ -1,7 +1,12 @@
 package ru.practicum.shareit.request.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.persistence.PooledSequenceGenerator;
 import ru.practicum.shareit.user.entity.User;
 
 import javax.persistence.*;
@@ -19,17 +24,21 @@ import java.util.List;
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "item_request_seq")
+    @GenericGenerator(name = "item_request_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "item_request_seq"))
     private int id;
 
     @Column
     private String description;
 
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requestor_id")
     @ToString.Exclude
     private User requestor;
 
     @OneToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @ToString.Exclude
     private List<Item> items;
 
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,12 +8,23 @@ import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.user.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
 
     List<ItemRequest> findItemRequestsByRequestor(User requestor, Sort sort);
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requestor != :user")
-    Page<ItemRequest> findItemRequestsByRequestorNotEqualUser(@Param("user") User user, Pageable pageable);
+    /**
+     * Seeks past the {@code (created, id)} cursor of the previous page, the requests are sorted by it in descending order
+     */
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor != :user " +
+            "AND r.created <= :created AND (r.created < :created OR r.id < :id) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findItemRequestsByRequestorNotEqualUser(
+            @Param("user") User user,
+            @Param("created") LocalDateTime created,
+            @Param("id") int id,
+            Pageable pageable
+    );
 }
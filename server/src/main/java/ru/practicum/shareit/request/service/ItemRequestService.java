@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.entity.ItemRequest;
 
@@ -13,6 +14,8 @@ public interface ItemRequestService {
 
     List<ItemRequest> findRequestsOfOtherUsers(int userId, int from, int size);
 
+    List<ItemRequest> findRequestsOfOtherUsers(int userId, Cursor after, int size);
+
     ItemRequest findById(int requestId);
 
     void validateRequestor(int requestorId);
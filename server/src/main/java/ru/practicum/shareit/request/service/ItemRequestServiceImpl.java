@@ -1,10 +1,14 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -16,6 +20,7 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private static final Sort ORDER_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created");
@@ -24,43 +29,63 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserService userService;
 
     @Override
+    @Transactional
     public ItemRequest create(int requestorId, ItemRequestDtoRequest dto) {
-        User requestor = userService.findById(requestorId);
+        User requestor = userService.findReferenceById(requestorId);
         ItemRequest request = requestMapper.dtoRequestToItemRequest(dto, requestor);
         return requestRepository.save(request);
     }
 
     @Override
     public List<ItemRequest> findRequestsOfUser(int requestorId) {
-        User requestor = userService.findById(requestorId);
-        return requestRepository.findItemRequestsByRequestor(requestor, ORDER_BY_CREATED_DESC);
+        User requestor = userService.findReferenceById(requestorId);
+        return initializeItems(requestRepository.findItemRequestsByRequestor(requestor, ORDER_BY_CREATED_DESC));
     }
 
     @Override
     public List<ItemRequest> findRequestsOfOtherUsers(int userId, int from, int size) {
-        final User user = userService.findById(userId);
-        final int page = getPage(from, size);
-        final PageRequest pageRequest = PageRequest.of(page, size, ORDER_BY_CREATED_DESC);
-        return requestRepository.findItemRequestsByRequestorNotEqualUser(user, pageRequest).getContent();
+        final User user = userService.findReferenceById(userId);
+        return findRequestsOfOtherUsers(user, Cursor.HIGHEST, getPageRequest(from, size));
     }
 
-    private int getPage(int fromElement, int size) {
+    @Override
+    public List<ItemRequest> findRequestsOfOtherUsers(int userId, Cursor after, int size) {
+        final User user = userService.findReferenceById(userId);
+        return findRequestsOfOtherUsers(user, after, getPageRequest(0, size));
+    }
+
+    private List<ItemRequest> findRequestsOfOtherUsers(User user, Cursor after, Pageable pageable) {
+        return initializeItems(requestRepository
+                .findItemRequestsByRequestorNotEqualUser(user, after.getPosition(), after.getId(), pageable));
+    }
+
+    /**
+     * Loads the items of the requests before the transaction ends, in batches instead of one query per request
+     */
+    private List<ItemRequest> initializeItems(List<ItemRequest> requests) {
+        requests.forEach(request -> Hibernate.initialize(request.getItems()));
+        return requests;
+    }
+
+    private Pageable getPageRequest(int fromElement, int size) {
         if (fromElement < 0 || size < 1) {
             throw new IllegalArgumentException("Размер или элемент, с которого необходимо вернуть вещи, не должны быть меньше нуля");
         }
-        return fromElement / size;
+        return OffsetPageRequest.of(fromElement, size);
     }
 
     @Override
     public ItemRequest findById(int requestId) {
-        return requestRepository.findById(requestId)
+        ItemRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка получения несуществующего запроса"));
+        Hibernate.initialize(request.getItems());
+        return request;
     }
 
     @Override
     public void validateRequestor(int requestorId) {
         try {
-            userService.findById(requestorId);
+            userService.findReferenceById(requestorId);
         } catch (EntityDoesNotExistException e) {
             throw new EntityDoesNotExistException("Попытка получения запроса несуществующего пользователя");
         }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.streaming;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+
+    private long line;
+    private String error;
+}
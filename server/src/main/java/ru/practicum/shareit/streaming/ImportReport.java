@@ -0,0 +1,33 @@
+package ru.practicum.shareit.streaming;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts imported and rejected lines. Only the first {@value #MAX_REPORTED_ERRORS} errors are kept,
+ * so that the report of a long invalid input stays small
+ */
+@Getter
+@ToString
+public class ImportReport {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int imported;
+    private int rejected;
+    private final List<ImportError> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void reject(long line, String error) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportError(line, error));
+        }
+    }
+}
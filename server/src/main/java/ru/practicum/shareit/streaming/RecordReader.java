@@ -0,0 +1,107 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads records one by one, a record that can not be parsed is returned with the error instead of the record,
+ * so that the rest of the input is still read
+ */
+public abstract class RecordReader<T> {
+
+    /**
+     * Returns the next record or null at the end of the input
+     */
+    @Nullable
+    public abstract Line<T> next() throws IOException;
+
+    /**
+     * One record per line, blank lines are skipped
+     */
+    static <T> RecordReader<T> ofLines(BufferedReader lines, ObjectReader objectReader) {
+        return new LineRecordReader<>(lines, objectReader);
+    }
+
+    /**
+     * Records as the parser delimits them, a quoted CSV value may span several lines.
+     * The number of a record is the line it starts at
+     */
+    static <T> RecordReader<T> ofRecords(MappingIterator<T> records) {
+        return new MappingRecordReader<>(records);
+    }
+
+    @Getter
+    public static class Line<T> {
+
+        private final long number;
+        @Nullable
+        private final T record;
+        @Nullable
+        private final String error;
+
+        Line(long number, @Nullable T record, @Nullable String error) {
+            this.number = number;
+            this.record = record;
+            this.error = error;
+        }
+    }
+
+    private static class LineRecordReader<T> extends RecordReader<T> {
+
+        private final BufferedReader lines;
+        private final ObjectReader objectReader;
+        private long lineNumber;
+
+        LineRecordReader(BufferedReader lines, ObjectReader objectReader) {
+            this.lines = lines;
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public Line<T> next() throws IOException {
+            String line;
+            do {
+                line = lines.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+            try {
+                return new Line<>(lineNumber, objectReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new Line<>(lineNumber, null, e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static class MappingRecordReader<T> extends RecordReader<T> {
+
+        private final MappingIterator<T> records;
+
+        MappingRecordReader(MappingIterator<T> records) {
+            this.records = records;
+        }
+
+        @Override
+        public Line<T> next() throws IOException {
+            long lineNumber = records.getCurrentLocation().getLineNr() + 1L;
+            try {
+                if (!records.hasNextValue()) {
+                    return null;
+                }
+                // the parser counts the lines of a CSV record from zero
+                lineNumber = records.getParser().getTokenLocation().getLineNr() + 1L;
+                return new Line<>(lineNumber, records.nextValue(), null);
+            } catch (JsonProcessingException e) {
+                return new Line<>(lineNumber, null, e.getOriginalMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvReadException;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Creates readers and writers of records in a {@link StreamFormat}. Records are mapped the same way as request
+ * and response bodies, a CSV column corresponds to a property of the record, in the order of declaration
+ */
+@Component
+public class RecordStreams {
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    public RecordStreams(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .findAndAddModules()
+                .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+    }
+
+    public <T> RecordWriter<T> writer(StreamFormat format, Class<T> type, OutputStream output) throws IOException {
+        if (format == StreamFormat.CSV) {
+            JsonGenerator generator = csvMapper.getFactory().createGenerator(output);
+            CsvSchema schema = csvMapper.schemaFor(type).withHeader();
+            return new RecordWriter<>(generator, csvMapper.writerFor(type)
+                    .with(schema)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE), false);
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.setRootValueSeparator(null);
+        return new RecordWriter<>(generator, objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT), true);
+    }
+
+    /**
+     * CSV input must start with the header naming the columns, columns the record does not have are ignored,
+     * so an export can be imported back
+     */
+    public <T> RecordReader<T> reader(StreamFormat format, Class<T> type, InputStream input) throws IOException {
+        if (format == StreamFormat.CSV) {
+            MappingIterator<T> records;
+            try {
+                // the header is read right away, a missing one fails here and not on the first record
+                records = csvMapper.readerFor(type)
+                        .with(CsvSchema.emptySchema().withHeader())
+                        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .readValues(withoutByteOrderMark(input));
+            } catch (CsvReadException e) {
+                throw new IllegalArgumentException("Первая строка CSV должна содержать названия столбцов");
+            }
+            return RecordReader.ofRecords(records);
+        }
+        return RecordReader.ofLines(withoutByteOrderMark(input), objectMapper.readerFor(type));
+    }
+
+    /**
+     * Spreadsheets put a byte order mark before UTF-8 text, the parsers would take it for the start of the first
+     * column name or record
+     */
+    private static BufferedReader withoutByteOrderMark(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+}
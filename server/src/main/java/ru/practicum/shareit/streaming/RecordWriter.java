@@ -0,0 +1,36 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes records one after another to an output stream without keeping them, the output is flushed
+ * only when the buffer of the generator fills up or when {@link #flush()} is called
+ */
+public class RecordWriter<T> implements Flushable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter objectWriter;
+    private final boolean lineSeparated;
+
+    RecordWriter(JsonGenerator generator, ObjectWriter objectWriter, boolean lineSeparated) {
+        this.generator = generator;
+        this.objectWriter = objectWriter;
+        this.lineSeparated = lineSeparated;
+    }
+
+    public void write(T record) throws IOException {
+        objectWriter.writeValue(generator, record);
+        if (lineSeparated) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.streaming;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Line-oriented formats of streamed imports and exports: one JSON object per line or CSV with a header line
+ */
+public enum StreamFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    StreamFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Chooses the format by its name regardless of case, NDJSON when the name is absent
+     */
+    public static StreamFormat ofName(@Nullable String name) {
+        if (name == null || name.isBlank()) {
+            return NDJSON;
+        }
+        for (StreamFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Поддерживаются только форматы ndjson и csv");
+    }
+
+    /**
+     * Chooses the format by the value of a {@code Content-Type} header, NDJSON when it is absent or allows any type
+     */
+    public static StreamFormat of(@Nullable String mediaTypes) {
+        if (mediaTypes == null || mediaTypes.isBlank()) {
+            return NDJSON;
+        }
+        List<MediaType> parsedMediaTypes;
+        try {
+            parsedMediaTypes = MediaType.parseMediaTypes(mediaTypes);
+        } catch (InvalidMediaTypeException e) {
+            throw new IllegalArgumentException("Некорректный тип содержимого: " + mediaTypes);
+        }
+        MediaType.sortBySpecificityAndQuality(parsedMediaTypes);
+        for (MediaType mediaType : parsedMediaTypes) {
+            for (StreamFormat format : values()) {
+                if (mediaType.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Поддерживаются только форматы application/x-ndjson и text/csv");
+    }
+}
@@ -13,6 +13,12 @@ public interface UserService {
 
     User findById(int id);
 
+    /**
+     * Checks that the user exists and returns a reference to it for associations and query parameters,
+     * the state of the user is not loaded
+     */
+    User findReferenceById(int id);
+
     User update(int id, UserDtoRequest dto);
 
     void delete(int id);
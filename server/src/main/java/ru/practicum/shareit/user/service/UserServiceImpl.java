@@ -1,7 +1,12 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.EntityAlreadyExistsException;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.user.dto.UserDtoRequest;
@@ -14,16 +19,23 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
+    public static final String USERS = "users";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserPatchUpdater userPatchUpdater;
+    private final CacheManager cacheManager;
 
     @Override
+    @Transactional
     public User create(UserDtoRequest userDto) {
         User user = userMapper.dtoRequestToUser(userDto);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        evictUser(savedUser.getId());
+        return savedUser;
     }
 
     @Override
@@ -37,7 +49,24 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка получения несуществующего пользователя"));
     }
 
+    /**
+     * Only the existence of users is cached, an entity is bound to the transaction that loaded it and must not be
+     * shared between threads. A missing user is cached too, so requests with a wrong user id do not reach the database
+     */
+    @Override
+    public User findReferenceById(int id) {
+        Cache users = cacheManager.getCache(USERS);
+        Boolean exists = users == null
+                ? userRepository.existsById(id)
+                : users.get(id, () -> userRepository.existsById(id));
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new EntityDoesNotExistException("Попытка получения несуществующего пользователя");
+        }
+        return userRepository.getReferenceById(id);
+    }
+
     @Override
+    @Transactional
     public User update(int id, UserDtoRequest dto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка обновить несуществующего пользователя"));
@@ -51,14 +80,36 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(int id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityDoesNotExistException("Попытка удалить несуществующего пользователя"));
         userRepository.delete(user);
+        evictUser(id);
     }
 
     @Override
     public boolean isEmailExists(String email) {
         return userRepository.countByEmailEquals(email) != 0;
     }
+
+    /**
+     * Evicts the user now and once more when the transaction completes, so that neither a read made before
+     * the commit nor the existence of a user whose creation was rolled back stays in the cache
+     */
+    private void evictUser(int id) {
+        Cache users = cacheManager.getCache(USERS);
+        if (users == null) {
+            return;
+        }
+        users.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.evict(id);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,24 @@
+-- Last and next waiting or approved booking of every item that has any, kept up to date by the application
+-- and rolled forward once the next booking starts
+CREATE TABLE IF NOT EXISTS public.item_booking_summary (
+    item_id            INTEGER                     PRIMARY KEY REFERENCES item (id),
+    last_booking_id    INTEGER                     REFERENCES booking (id),
+    next_booking_id    INTEGER                     REFERENCES booking (id),
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_next_booking_start_index
+    ON public.item_booking_summary (next_booking_start);
+
+INSERT INTO public.item_booking_summary (item_id, last_booking_id, next_booking_id, next_booking_start)
+SELECT i.id,
+       (SELECT b.id FROM public.booking b
+        WHERE b.item_id = i.id AND b.start_at < LOCALTIMESTAMP AND b.status < 2
+        ORDER BY b.start_at DESC LIMIT 1),
+       (SELECT b.id FROM public.booking b
+        WHERE b.item_id = i.id AND b.start_at > LOCALTIMESTAMP AND b.status < 2
+        ORDER BY b.start_at LIMIT 1),
+       (SELECT MIN(b.start_at) FROM public.booking b
+        WHERE b.item_id = i.id AND b.start_at > LOCALTIMESTAMP AND b.status < 2)
+FROM public.item i
+WHERE EXISTS (SELECT 1 FROM public.booking b WHERE b.item_id = i.id AND b.status < 2);
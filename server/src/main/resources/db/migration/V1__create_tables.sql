@@ -41,4 +41,9 @@ CREATE TABLE IF NOT EXISTS public.comment (
     created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
-CREATE UNIQUE INDEX IF NOT EXISTS user_email_index ON public."user" (email);
\ No newline at end of file
+CREATE TABLE IF NOT EXISTS public.item_request_items (
+    item_request_id INTEGER NOT NULL REFERENCES item_request (id),
+    items_id        INTEGER NOT NULL UNIQUE REFERENCES item (id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS user_email_index ON public."user" (email);
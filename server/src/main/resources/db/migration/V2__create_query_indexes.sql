@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS item_owner_id_index ON public.item (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS booking_item_id_start_at_index ON public.booking (item_id, start_at DESC);
+
+CREATE INDEX IF NOT EXISTS booking_item_id_status_start_at_index ON public.booking (item_id, status, start_at);
+
+CREATE INDEX IF NOT EXISTS booking_booker_id_start_at_index ON public.booking (booker_id, start_at DESC);
+
+CREATE INDEX IF NOT EXISTS comment_item_id_index ON public.comment (item_id);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS item_request_created_at_id_index ON public.item_request (created_at DESC, id DESC);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS booking_booker_id_item_id_index ON public.booking (booker_id, item_id, status, start_at);
@@ -0,0 +1,2 @@
+ALTER TABLE public.item ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE public.booking ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
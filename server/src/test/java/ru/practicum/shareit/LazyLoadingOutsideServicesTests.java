@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Calls every endpoint through the whole stack with open-in-view disabled and without a test transaction,
+ * so that a lazy association touched after a service method returns fails the request
+ */
+@SpringBootTest(
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:lazy_loading",
+                "spring.jpa.open-in-view=false"
+        }
+)
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class LazyLoadingOutsideServicesTests {
+
+    static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    final MockMvc mockMvc;
+
+    final UserRepository userRepository;
+
+    final ItemRepository itemRepository;
+
+    final BookingRepository bookingRepository;
+
+    int ownerId;
+
+    int bookerId;
+
+    int itemId;
+
+    int requestId;
+
+    int bookingId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        bookingRepository.deleteAll();
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        requestId = readId(perform(post("/requests"), bookerId, "{\"description\":\"Нужна дрель\"}"));
+        itemId = readId(perform(post("/items"), ownerId,
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true,\"requestId\":" + requestId + "}"));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingId = readId(perform(post("/bookings"), bookerId, "{\"itemId\":" + itemId +
+                ",\"start\":\"" + start.format(DATE_TIME_FORMAT) + "\"" +
+                ",\"end\":\"" + start.plusDays(1).format(DATE_TIME_FORMAT) + "\"}"));
+
+        bookingRepository.save(Booking.builder()
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    @Test
+    void shouldServeEveryEndpointWithoutOpenSessionInView() throws Exception {
+        perform(patch("/bookings/" + bookingId + "?approved=true"), ownerId, null);
+        perform(post("/items/" + itemId + "/comment"), bookerId, "{\"text\":\"Отличная дрель\"}");
+        perform(patch("/items/" + itemId), ownerId, "{\"description\":\"Ударная, с кейсом\"}");
+
+        perform(get("/users"), ownerId, null);
+        perform(get("/users/" + bookerId), ownerId, null);
+        perform(get("/items?from=0&size=10"), ownerId, null);
+        perform(get("/items/" + itemId), ownerId, null);
+        perform(get("/items/" + itemId), bookerId, null);
+        perform(get("/items/search?text=дрель&from=0&size=10"), bookerId, null);
+        perform(get("/requests"), bookerId, null);
+        perform(get("/requests/all?from=0&size=10"), ownerId, null);
+        perform(get("/requests/" + requestId), ownerId, null);
+        perform(get("/bookings?state=ALL&from=0&size=10"), bookerId, null);
+        perform(get("/bookings/owner?state=ALL&from=0&size=10"), ownerId, null);
+        perform(get("/bookings/count?state=ALL"), bookerId, null);
+        perform(get("/bookings/owner/count?state=ALL"), ownerId, null);
+        perform(get("/bookings/" + bookingId), bookerId, null);
+    }
+
+    private int createUser(String name) throws Exception {
+        String email = name + System.nanoTime() + "@lazy.ru";
+        return readId(perform(post("/users"), 0, "{\"name\":\"" + name + "\",\"email\":\"" + email + "\"}"));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request, int userId, String body) throws Exception {
+        request.header("X-Sharer-User-Id", userId);
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertEquals(200, result.getResponse().getStatus(),
+                () -> result.getRequest().getRequestURI() + ": " + result.getResolvedException());
+        return result;
+    }
+
+    private static int readId(MvcResult result) throws Exception {
+        return new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("id").asInt();
+    }
+}
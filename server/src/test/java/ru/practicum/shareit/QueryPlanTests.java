@@ -0,0 +1,99 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations against H2 in PostgreSQL mode and checks that the indexes and id sequences they declare
+ * exist and that the hot queries are served by indexes instead of full table scans
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.flyway.enabled=true",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.datasource.url=jdbc:h2:mem:query_plan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+        }
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanTests {
+
+    final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCreateIndexesForHotQueries() {
+        List<String> indexNames = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_schema = 'public'", String.class
+        );
+
+        assertTrue(indexNames.containsAll(List.of(
+                "user_email_index",
+                "item_owner_id_index",
+                "booking_item_id_start_at_index",
+                "booking_item_id_status_start_at_index",
+                "booking_booker_id_start_at_index",
+                "comment_item_id_index",
+                "item_request_created_at_id_index",
+                "booking_booker_id_item_id_index"
+        )), indexNames.toString());
+    }
+
+    @Test
+    void shouldCreateSequencesWithIncrementOfIdAllocationSize() {
+        List<Map<String, Object>> sequences = jdbcTemplate.queryForList(
+                "SELECT sequence_name, increment FROM information_schema.sequences WHERE sequence_schema = 'public'"
+        );
+        Map<String, Long> incrementsBySequence = sequences.stream()
+                .collect(Collectors.toMap(
+                        sequence -> (String) sequence.get("sequence_name"),
+                        sequence -> ((Number) sequence.get("increment")).longValue()
+                ));
+
+        assertEquals(
+                Map.of("user_seq", 50L, "item_request_seq", 50L, "item_seq", 50L, "booking_seq", 50L, "comment_seq", 50L),
+                incrementsBySequence
+        );
+    }
+
+    @Test
+    void shouldServeHotQueriesWithoutTableScans() {
+        List<String> hotQueries = List.of(
+                "SELECT * FROM booking b WHERE b.booker_id = 1 ORDER BY b.start_at DESC",
+                "SELECT * FROM booking b WHERE b.booker_id = 1 AND b.status = 0 ORDER BY b.start_at DESC",
+                "SELECT * FROM booking b WHERE b.booker_id = 1 AND b.start_at <= now() AND b.end_at >= now() " +
+                        "ORDER BY b.start_at DESC",
+                "SELECT * FROM booking b JOIN item i ON b.item_id = i.id WHERE i.owner_id = 1 ORDER BY b.start_at DESC",
+                "SELECT * FROM booking b WHERE b.item_id = 1 AND b.start_at < now() AND b.status < 2 " +
+                        "ORDER BY b.start_at DESC LIMIT 1",
+                "SELECT * FROM booking b WHERE b.item_id = 1 AND b.status = 0 AND b.start_at > now()",
+                "SELECT * FROM comment c WHERE c.item_id = 1",
+                "SELECT b.id FROM booking b WHERE b.booker_id = 1 AND b.item_id = 1 AND b.status = 1 " +
+                        "AND b.start_at < now() LIMIT 1",
+                "SELECT * FROM item i WHERE i.owner_id = 1 AND i.id > 10 ORDER BY i.id",
+                "SELECT * FROM booking b WHERE b.booker_id = 1 AND b.start_at <= now() " +
+                        "AND (b.start_at < now() OR b.id < 10) ORDER BY b.start_at DESC, b.id DESC",
+                "SELECT * FROM item_request r WHERE r.requestor_id <> 1 AND r.created_at <= now() " +
+                        "AND (r.created_at < now() OR r.id < 10) ORDER BY r.created_at DESC, r.id DESC"
+        );
+
+        for (String query : hotQueries) {
+            String plan = explain(query);
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
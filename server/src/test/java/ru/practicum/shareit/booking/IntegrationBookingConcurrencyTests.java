@@ -0,0 +1,291 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.RequestBookingStates;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.EntityIsNotAvailableException;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDtoRequest;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Approves and rejects bookings from many threads at once. The test is not transactional,
+ * every update commits on its own, so it uses a database of its own
+ */
+@Slf4j
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:booking_concurrency;LOCK_TIMEOUT=10000",
+                "shareit.booking.lock.mode=striped",
+                "shareit.retry.max-attempts=5"
+        }
+)
+@SpyBean(ItemBookingSummaryService.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IntegrationBookingConcurrencyTests {
+
+    static final int THREADS = 8;
+
+    static final int BOOKINGS = 24;
+
+    final UserService userService;
+
+    final ItemService itemService;
+
+    final BookingService bookingService;
+
+    final BookingRepository bookingRepository;
+
+    final ItemBookingSummaryService itemBookingSummaryService;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldApproveOnlyOneOfBookingsWithSamePeriod() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Item item = createItem("same");
+        User owner = item.getOwner();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(createBooking(item, "same" + i, start, start.plusHours(2)));
+        }
+
+        int approved = approveConcurrently(bookings, owner);
+
+        assertEquals(1, approved);
+        assertEquals(1, findApprovedBookings(item).size());
+    }
+
+    @Test
+    void shouldNeverApproveOverlappingBookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Item item = createItem("shifted");
+        User owner = item.getOwner();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(createBooking(item, "shifted" + i, start.plusHours(i), start.plusHours(i + 3)));
+        }
+
+        int approved = approveConcurrently(bookings, owner);
+
+        List<Booking> approvedBookings = findApprovedBookings(item);
+        assertEquals(approved, approvedBookings.size());
+        assertTrue(approved > 0);
+        for (int i = 1; i < approvedBookings.size(); i++) {
+            Booking previous = approvedBookings.get(i - 1);
+            Booking current = approvedBookings.get(i);
+            assertFalse(current.getStart().isBefore(previous.getEnd()),
+                    () -> "Аренды " + previous.getId() + " и " + current.getId() + " пересекаются");
+        }
+    }
+
+    @Test
+    void shouldDecideEachBookingOnlyOnceUnderContention() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Item item = createItem("contended");
+        User owner = item.getOwner();
+        List<Callable<Boolean>> decisions = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = createBooking(item, "contended" + i, start.plusDays(i), start.plusDays(i).plusHours(1));
+            bookings.add(booking);
+            for (int j = 0; j < 4; j++) {
+                boolean isApproved = j % 2 == 0;
+                decisions.add(() -> {
+                    try {
+                        bookingService.update(booking.getId(), isApproved, owner.getId());
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                });
+            }
+        }
+
+        long startedAt = System.nanoTime();
+        int decided = runConcurrently(decisions);
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        log.info("{} конкурирующих решений по {} арендам за {} с, {} в секунду",
+                decisions.size(), BOOKINGS, String.format("%.3f", seconds),
+                String.format("%.1f", decisions.size() / seconds));
+
+        assertEquals(BOOKINGS, decided);
+        for (Booking booking : bookings) {
+            Booking decidedBooking = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertFalse(BookingStatus.WAITING == decidedBooking.getStatus());
+            assertEquals(1L, decidedBooking.getVersion());
+        }
+    }
+
+    @Test
+    void shouldRetryDecisionInNewTransactionWhenBookingChangedConcurrently() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Item item = createItem("retried");
+        Booking booking = createBooking(item, "retried", start, start.plusHours(2));
+        AtomicBoolean changed = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        doAnswer(invocation -> {
+            if (changed.compareAndSet(false, true)) {
+                // another transaction writes the booking after the first attempt has read it
+                executor.submit(() -> jdbcTemplate.update(
+                        "UPDATE booking SET version = version + 1 WHERE id = ?", booking.getId()
+                )).get();
+            }
+            return invocation.callRealMethod();
+        }).when(itemBookingSummaryService).onBookingStatusChanged(any());
+
+        try {
+            Booking approved = bookingService.update(booking.getId(), true, item.getOwner().getId());
+
+            assertEquals(BookingStatus.APPROVED, approved.getStatus());
+            assertEquals(2L, approved.getVersion());
+            verify(itemBookingSummaryService, times(2)).onBookingStatusChanged(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldNotKeepCountReadBeforeCommitInCache() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Item item = createItem("counted");
+        Booking first = createBooking(item, "counted", start, start.plusHours(1));
+        int bookerId = first.getBooker().getId();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookingService.create(BookingDtoRequest.builder()
+                        .itemId(item.getId())
+                        .start(start.plusDays(1))
+                        .end(start.plusDays(1).plusHours(1))
+                        .build(), bookerId);
+                try {
+                    // another transaction counts the bookings before this one commits and caches the count
+                    assertEquals(1L, executor.submit(() -> bookingService
+                            .countBookingsOfUserByState(bookerId, RequestBookingStates.ALL)).get());
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new AssertionError(e);
+                }
+            });
+
+            assertEquals(2L, bookingService.countBookingsOfUserByState(bookerId, RequestBookingStates.ALL));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int approveConcurrently(List<Booking> bookings, User owner) throws InterruptedException {
+        List<Callable<Boolean>> approvals = new ArrayList<>();
+        for (Booking booking : bookings) {
+            approvals.add(() -> {
+                try {
+                    bookingService.update(booking.getId(), true, owner.getId());
+                    return true;
+                } catch (EntityIsNotAvailableException e) {
+                    return false;
+                }
+            });
+        }
+        return runConcurrently(approvals);
+    }
+
+    private int runConcurrently(List<Callable<Boolean>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startLine = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (Callable<Boolean> task : tasks) {
+                results.add(executor.submit(() -> {
+                    startLine.await();
+                    return task.call();
+                }));
+            }
+            startLine.countDown();
+
+            int approved = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        approved++;
+                    }
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Обновление аренды завершилось с ошибкой", e.getCause());
+                }
+            }
+            return approved;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Booking> findApprovedBookings(Item item) {
+        return bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> BookingStatus.APPROVED == booking.getStatus())
+                .sorted((first, second) -> first.getStart().compareTo(second.getStart()))
+                .collect(Collectors.toList());
+    }
+
+    private Item createItem(String prefix) {
+        User owner = userService.create(UserDtoRequest.builder()
+                .name(prefix)
+                .email(prefix + "@owner.ru")
+                .build());
+        return itemService.create(ItemDtoRequest.builder()
+                .name("Палатка")
+                .description("Четырехместная")
+                .available(Boolean.TRUE)
+                .build(), owner.getId());
+    }
+
+    private Booking createBooking(Item item, String bookerName, LocalDateTime start, LocalDateTime end) {
+        User booker = userService.create(UserDtoRequest.builder()
+                .name(bookerName)
+                .email(bookerName + "@booker.ru")
+                .build());
+        return bookingService.create(BookingDtoRequest.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build(), booker.getId());
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExportService;
+import ru.practicum.shareit.exception.EntityDoesNotExistException;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.streaming.StreamFormat;
+import ru.practicum.shareit.user.dto.UserDtoRequest;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "db.name=booking_export_test"
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IntegrationBookingExportTests {
+
+    final EntityManager entityManager;
+
+    final UserService userService;
+
+    final ItemService itemService;
+
+    final BookingRepository bookingRepository;
+
+    final BookingExportService bookingExportService;
+
+    User owner;
+
+    User booker;
+
+    Item item;
+
+    LocalDateTime start = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setup() {
+        owner = userService.create(UserDtoRequest.builder()
+                .name("Alex")
+                .email("Alex@gmail.com")
+                .build());
+        booker = userService.create(UserDtoRequest.builder()
+                .name("John")
+                .email("John@yandex.ru")
+                .build());
+        item = itemService.create(ItemDtoRequest.builder()
+                .name("Кастрюля")
+                .description("Роскошная")
+                .available(Boolean.TRUE)
+                .build(), owner.getId());
+    }
+
+    @Test
+    void shouldExportWholeHistoryOfBookerInChronologicalOrder() throws IOException {
+        int count = 1234;
+        bookingRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> booking(start.plusDays(count - i), BookingStatus.APPROVED))
+                .collect(Collectors.toList()));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> ndjson = exportBookingsOfUser(booker, StreamFormat.NDJSON);
+        List<String> csv = exportBookingsOfUser(booker, StreamFormat.CSV);
+
+        assertEquals(count, ndjson.size());
+        assertEquals(count + 1, csv.size());
+        assertEquals("id,start,end,status,itemId,itemName,bookerId", csv.get(0));
+        assertEquals("2020-01-02T12:00:00,2020-01-02T13:00:00,APPROVED," + item.getId() + ",Кастрюля," +
+                booker.getId(), csv.get(1).substring(csv.get(1).indexOf(',') + 1));
+        assertEquals("\"start\":\"2020-01-02T12:00:00\",\"end\":\"2020-01-02T13:00:00\",\"status\":\"APPROVED\"," +
+                        "\"itemId\":" + item.getId() + ",\"itemName\":\"Кастрюля\",\"bookerId\":" + booker.getId() + "}",
+                ndjson.get(0).substring(ndjson.get(0).indexOf(',') + 1));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void shouldExportBookingsOfItemsOwnerOnly() throws IOException {
+        Item otherItem = itemService.create(ItemDtoRequest.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(Boolean.TRUE)
+                .build(), booker.getId());
+        bookingRepository.save(booking(start, BookingStatus.REJECTED));
+        Booking otherBooking = booking(start.plusDays(1), BookingStatus.WAITING);
+        otherBooking.setItem(otherItem);
+        otherBooking.setBooker(owner);
+        bookingRepository.save(otherBooking);
+        entityManager.flush();
+
+        List<String> ownerBookings = exportBookingsOfItemsOwner(owner, StreamFormat.NDJSON);
+        List<String> ownerOwnBookings = exportBookingsOfUser(owner, StreamFormat.NDJSON);
+
+        assertEquals(1, ownerBookings.size());
+        assertEquals(1, ownerOwnBookings.size());
+        assertTrue(ownerBookings.get(0).contains("\"status\":\"REJECTED\""));
+        assertTrue(ownerOwnBookings.get(0).contains("\"itemName\":\"Дрель\""));
+    }
+
+    @Test
+    void shouldNotExportBookingsOfNonExistentUser() {
+        assertThrows(EntityDoesNotExistException.class, () -> bookingExportService.validateUser(100500));
+    }
+
+    private Booking booking(LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .status(status)
+                .item(item)
+                .booker(booker)
+                .build();
+    }
+
+    private List<String> exportBookingsOfUser(User user, StreamFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExportService.exportBookingsOfUser(user.getId(), format, output);
+        return output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+
+    private List<String> exportBookingsOfItemsOwner(User user, StreamFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExportService.exportBookingsOfItemsOwner(user.getId(), format, output);
+        return output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+}
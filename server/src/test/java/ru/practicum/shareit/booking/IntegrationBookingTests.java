@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.RequestBookingStates;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingCreationResult;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.mapping.BookingMapper;
 import ru.practicum.shareit.item.comment.dto.CommentDtoRequest;
@@ -20,30 +24,41 @@ import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.mapping.ItemMapper;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDtoRequest;
 import ru.practicum.shareit.user.dto.UserDtoResponse;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.mapping.UserMapper;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.NONE,
-        properties = "db.name=booking_test"
+        properties = {
+                "db.name=booking_test",
+                "spring.jpa.properties.hibernate.generate_statistics=true"
+        }
 )
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class IntegrationBookingTests {
 
+    final EntityManager entityManager;
+
     final ItemMapper itemMapper;
 
     final ItemService itemService;
@@ -56,6 +71,8 @@ public class IntegrationBookingTests {
 
     final BookingService bookingService;
 
+    final BookingRepository bookingRepository;
+
     List<Item> expectedItems = new ArrayList<>();
 
     List<User> expectedOwners = new ArrayList<>();
@@ -280,6 +297,61 @@ public class IntegrationBookingTests {
         assertEquals(expectedBookingsOfBooker2, actualBookingsOfBooker2);
     }
 
+    @Test
+    void shouldScrollBookingsOfBookerWithCursor() {
+        int bookerId = expectedBookers.get(0).getId();
+        List<Booking> expectedBookingsOfBooker1 = bookingService.findBookingsOfUserByState(
+                bookerId, RequestBookingStates.ALL, 0, 10
+        );
+
+        List<Booking> firstPage = bookingService.findBookingsOfUserByState(bookerId, RequestBookingStates.ALL, 0, 1);
+        Booking lastOfFirstPage = firstPage.get(0);
+        List<Booking> secondPage = bookingService.findBookingsOfUserByState(
+                bookerId, RequestBookingStates.ALL, Cursor.of(lastOfFirstPage.getStart(), lastOfFirstPage.getId()), 1
+        );
+        Booking lastOfSecondPage = secondPage.get(0);
+        List<Booking> thirdPage = bookingService.findBookingsOfUserByState(
+                bookerId, RequestBookingStates.ALL, Cursor.of(lastOfSecondPage.getStart(), lastOfSecondPage.getId()), 1
+        );
+
+        assertEquals(expectedBookingsOfBooker1, List.of(lastOfFirstPage, lastOfSecondPage));
+        assertEquals(Collections.emptyList(), thirdPage);
+    }
+
+    @Test
+    void shouldStartPageFromElementThatIsNotMultipleOfSize() {
+        int bookerId = expectedBookers.get(0).getId();
+        List<Booking> allBookingsOfBooker1 = bookingService.findBookingsOfUserByState(
+                bookerId, RequestBookingStates.ALL, 0, 10
+        );
+
+        List<Booking> actualBookings = bookingService.findBookingsOfUserByState(
+                bookerId, RequestBookingStates.ALL, 1, 2
+        );
+
+        assertEquals(allBookingsOfBooker1.subList(1, 2), actualBookings);
+    }
+
+    @Test
+    void shouldRecountCachedBookingsAfterBookingIsCreated() {
+        int bookerId = expectedBookers.get(0).getId();
+        int ownerId = expectedOwners.get(1).getId();
+        long bookingsOfBooker = bookingService.countBookingsOfUserByState(bookerId, RequestBookingStates.ALL);
+        long waitingBookingsOfOwner = bookingService.countBookingsOfItemsOwnerByState(ownerId, RequestBookingStates.WAITING);
+
+        BookingDtoRequest bookingDto = BookingDtoRequest.builder()
+                .itemId(expectedItems.get(1).getId())
+                .start(LocalDateTime.now().plusDays(20))
+                .end(LocalDateTime.now().plusDays(21))
+                .build();
+        bookingService.create(bookingDto, bookerId);
+
+        assertEquals(2, bookingsOfBooker);
+        assertEquals(1, waitingBookingsOfOwner);
+        assertEquals(3, bookingService.countBookingsOfUserByState(bookerId, RequestBookingStates.ALL));
+        assertEquals(2, bookingService.countBookingsOfItemsOwnerByState(ownerId, RequestBookingStates.WAITING));
+    }
+
     @Test
     void shouldUpdateStatusWaitingToApproved() {
         Booking booking1 = expectedBookings.get(0);
@@ -338,6 +410,43 @@ public class IntegrationBookingTests {
         assertEquals(expectedComment, actualComment);
     }
 
+    @Test
+    void shouldCheckCommentPermissionWithConstantNumberOfStatements() throws InterruptedException {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        User booker = expectedBookers.get(0);
+        Item item = expectedItems.get(2);
+        Thread.sleep(1000L);
+        bookingService.update(expectedBookings.get(2).getId(), true, expectedOwners.get(0).getId());
+
+        long statementsForShortHistory = countStatementsOfPermissionCheck(statistics, booker, item);
+        for (int i = 1; i <= 20; i++) {
+            BookingDtoRequest bookingDto = BookingDtoRequest.builder()
+                    .itemId(expectedItems.get(1).getId())
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i).plusHours(1))
+                    .build();
+            Booking booking = bookingService.create(bookingDto, booker.getId());
+            bookingService.update(booking.getId(), true, expectedOwners.get(1).getId());
+        }
+        long statementsForLongHistory = countStatementsOfPermissionCheck(statistics, booker, item);
+
+        assertEquals(1, statementsForShortHistory);
+        assertEquals(statementsForShortHistory, statementsForLongHistory);
+    }
+
+    private long countStatementsOfPermissionCheck(Statistics statistics, User booker, Item item) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        boolean isPermitted = bookingRepository.existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+                booker, item, BookingStatus.APPROVED, LocalDateTime.now()
+        );
+        assertTrue(isPermitted);
+        return statistics.getPrepareStatementCount();
+    }
+
     @Test
     void shouldMakeBookingDtoResponseCorrectly() {
         Booking booking1 = expectedBookings.get(0);
@@ -357,4 +466,158 @@ public class IntegrationBookingTests {
         assertEquals(expectedBookingDtoResponse, actualBookingDtoResponse);
     }
 
+    @Test
+    void shouldMapPageOfBookingsWithConstantNumberOfStatements() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        int bookerId = expectedBookers.get(0).getId();
+        // the existence of the booker is cached, only the first lookup reaches the database
+        userService.findReferenceById(bookerId);
+
+        long statementsForPageOfOne = countStatementsOfMappedPage(
+                statistics, () -> bookingService.findBookingsOfUserByState(bookerId, RequestBookingStates.ALL, 0, 1)
+        );
+        long statementsForPageOfTwo = countStatementsOfMappedPage(
+                statistics, () -> bookingService.findBookingsOfUserByState(bookerId, RequestBookingStates.ALL, 0, 2)
+        );
+
+        assertEquals(statementsForPageOfOne, statementsForPageOfTwo);
+    }
+
+    private long countStatementsOfMappedPage(Statistics statistics, Supplier<List<Booking>> pageSupplier) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        List<BookingDtoResponse> dtos = bookingMapper.bookingsToDtoResponses(pageSupplier.get());
+        dtos.forEach(dto -> assertEquals(expectedBookers.get(0).getName(), dto.getBooker().getName()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void shouldCreateBookingsInBulkWithResultPerRow() {
+        User booker = expectedBookers.get(1);
+        Item item1 = expectedItems.get(0);
+        Item item3 = expectedItems.get(2);
+        List<BookingDtoRequest> dtos = List.of(
+                BookingDtoRequest.builder()
+                        .itemId(item1.getId())
+                        .start(LocalDateTime.now().plusDays(5))
+                        .end(LocalDateTime.now().plusDays(6))
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(Integer.MAX_VALUE)
+                        .start(LocalDateTime.now().plusDays(5))
+                        .end(LocalDateTime.now().plusDays(6))
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(item3.getId())
+                        .start(LocalDateTime.now().plusDays(6))
+                        .end(LocalDateTime.now().plusDays(5))
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(item1.getId())
+                        .start(LocalDateTime.now().plusDays(5).plusHours(12))
+                        .end(LocalDateTime.now().plusDays(7))
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(item3.getId())
+                        .start(LocalDateTime.now().plusDays(5))
+                        .end(LocalDateTime.now().plusDays(6))
+                        .build()
+        );
+
+        List<BookingCreationResult> results = bookingService.createAll(dtos, booker.getId());
+
+        assertEquals(dtos.size(), results.size());
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertFalse(results.get(2).isCreated());
+        assertFalse(results.get(3).isCreated());
+        assertEquals("Период аренды пересекается с арендой из строки 0", results.get(3).getError());
+        assertTrue(results.get(4).isCreated());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        List<Booking> bookingsOfBooker = bookingService.findBookingsOfUserByState(
+                booker.getId(), RequestBookingStates.WAITING, 0, 10
+        );
+        assertTrue(bookingsOfBooker.stream()
+                .map(Booking::getId)
+                .collect(toList())
+                .containsAll(List.of(results.get(0).getBooking().getId(), results.get(4).getBooking().getId())));
+    }
+
+    @Test
+    void shouldKeepValidBulkRowsWhenRowStartsAndEndsAtOnce() {
+        User booker = expectedBookers.get(0);
+        Item item1 = expectedItems.get(0);
+        Item item3 = expectedItems.get(2);
+        LocalDateTime start = LocalDateTime.now().plusDays(5).withNano(0);
+        List<BookingDtoRequest> dtos = List.of(
+                BookingDtoRequest.builder()
+                        .itemId(item1.getId())
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(item3.getId())
+                        .start(start)
+                        .end(start)
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(item3.getId())
+                        .start(start.plusDays(2).withNano(100))
+                        .end(start.plusDays(2).withNano(900))
+                        .build(),
+                BookingDtoRequest.builder()
+                        .itemId(item3.getId())
+                        .start(start.plusDays(3))
+                        .end(start.plusDays(4))
+                        .build()
+        );
+
+        List<BookingCreationResult> results = bookingService.createAll(dtos, booker.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertFalse(results.get(2).isCreated());
+        assertTrue(results.get(3).isCreated());
+        List<Integer> bookingIdsOfBooker = bookingService.findBookingsOfUserByState(
+                booker.getId(), RequestBookingStates.WAITING, 0, 10
+        ).stream().map(Booking::getId).collect(toList());
+        assertTrue(bookingIdsOfBooker.containsAll(
+                List.of(results.get(0).getBooking().getId(), results.get(3).getBooking().getId())));
+    }
+
+    @Test
+    void shouldRejectBulkRowOverlappingApprovedBooking() {
+        Booking approved = expectedBookings.get(1);
+        bookingService.update(approved.getId(), true, expectedOwners.get(1).getId());
+        BookingDtoRequest overlapping = BookingDtoRequest.builder()
+                .itemId(approved.getItem().getId())
+                .start(approved.getStart().plusHours(1))
+                .end(approved.getEnd().plusDays(1))
+                .build();
+
+        List<BookingCreationResult> results = bookingService.createAll(
+                List.of(overlapping), expectedBookers.get(0).getId()
+        );
+
+        assertFalse(results.get(0).isCreated());
+        assertEquals("Вещь уже арендована на пересекающийся период", results.get(0).getError());
+    }
+
+    @Test
+    void shouldRejectEmptyBulk() {
+        int bookerId = expectedBookers.get(0).getId();
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createAll(List.of(), bookerId));
+    }
+
 }
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.dto.LongItemDtoResponse;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDtoRequest;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "db.name=item_booking_summary_test"
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IntegrationItemBookingSummaryTests {
+
+    final EntityManager entityManager;
+
+    final UserService userService;
+
+    final ItemService itemService;
+
+    final BookingService bookingService;
+
+    final ItemBookingSummaryService summaryService;
+
+    final ItemBookingSummaryRepository summaryRepository;
+
+    User owner;
+
+    User booker;
+
+    Item item;
+
+    LocalDateTime now;
+
+    @BeforeEach
+    void setup() {
+        owner = userService.create(UserDtoRequest.builder()
+                .name("Alex")
+                .email("Alex@gmail.com")
+                .build());
+        booker = userService.create(UserDtoRequest.builder()
+                .name("John")
+                .email("John@yandex.ru")
+                .build());
+        item = itemService.create(ItemDtoRequest.builder()
+                .name("Кастрюля")
+                .description("Роскошная")
+                .available(Boolean.TRUE)
+                .build(), owner.getId());
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void shouldKeepClosestFutureBookingAsNextOnCreation() {
+        Booking second = book(2);
+        book(3);
+
+        assertEquals(second.getId(), storedSummary().getNextBooking().getId());
+
+        Booking first = book(1);
+        ItemBookingSummary summary = storedSummary();
+
+        assertNull(summary.getLastBooking());
+        assertEquals(first.getId(), summary.getNextBooking().getId());
+        assertEquals(summary.getNextBooking().getStart(), summary.getNextBookingStart());
+    }
+
+    @Test
+    void shouldReplaceRejectedNextBookingAndKeepApprovedOne() {
+        Booking first = book(1);
+        Booking second = book(2);
+
+        bookingService.update(first.getId(), true, owner.getId());
+        assertEquals(first.getId(), storedSummary().getNextBooking().getId());
+
+        bookingService.update(second.getId(), false, owner.getId());
+        assertEquals(first.getId(), storedSummary().getNextBooking().getId());
+
+        Booking third = book(3);
+        bookingService.update(third.getId(), false, owner.getId());
+        ItemBookingSummary summary = storedSummary();
+        assertEquals(first.getId(), summary.getNextBooking().getId());
+    }
+
+    @Test
+    void shouldClearNextBookingWhenOnlyBookingIsRejected() {
+        Booking first = book(1);
+
+        bookingService.update(first.getId(), false, owner.getId());
+        ItemBookingSummary summary = storedSummary();
+
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getNextBookingStart());
+    }
+
+    @Test
+    void shouldRollSummaryForwardOnceNextBookingStarts() {
+        Booking first = book(1);
+        Booking second = book(2);
+        LocalDateTime afterFirstStart = first.getStart().plusHours(1);
+
+        int rolledBeforeStart = summaryService.rollForward(now);
+        int rolledAfterStart = summaryService.rollForward(afterFirstStart);
+        ItemBookingSummary summary = storedSummary();
+
+        assertEquals(0, rolledBeforeStart);
+        assertEquals(1, rolledAfterStart);
+        assertEquals(first.getId(), summary.getLastBooking().getId());
+        assertEquals(second.getId(), summary.getNextBooking().getId());
+        assertEquals(summary.getNextBooking().getStart(), summary.getNextBookingStart());
+    }
+
+    @Test
+    void shouldRecomputeDueSummaryOnReadUntilSweeperRuns() {
+        Booking first = book(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemBookingSummary summary = summaryService.findSummary(item.getId(), first.getStart().plusHours(1));
+
+        assertEquals(first.getId(), summary.getLastBooking().getId());
+        assertNull(summary.getNextBooking());
+        assertEquals(first.getId(), storedSummary().getNextBooking().getId());
+    }
+
+    @Test
+    void shouldShowNextBookingFromSummaryOnItemPages() {
+        Booking first = book(1);
+        Booking second = book(2);
+        bookingService.update(first.getId(), false, owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        LongItemDtoResponse listed = itemService.findLongItemDtosOfUser(owner.getId(), 0, 10).get(0);
+        LongItemDtoResponse viewed = itemService.findLongItemDtoById(item.getId(), owner.getId());
+
+        assertEquals(second.getId(), listed.getNextBooking().getId());
+        assertEquals(second.getId(), viewed.getNextBooking().getId());
+        assertNull(listed.getLastBooking());
+    }
+
+    @Test
+    void shouldReturnEmptySummaryForItemWithoutBookings() {
+        ItemBookingSummary summary = summaryService.findSummary(item.getId(), now);
+
+        assertEquals(item.getId(), summary.getItemId());
+        assertNull(summary.getLastBooking());
+        assertNull(summary.getNextBooking());
+    }
+
+    private Booking book(int daysFromNow) {
+        return bookingService.create(BookingDtoRequest.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(daysFromNow))
+                .end(now.plusDays(daysFromNow).plusHours(1))
+                .build(), booker.getId());
+    }
+
+    private ItemBookingSummary storedSummary() {
+        entityManager.flush();
+        entityManager.clear();
+        return summaryRepository.findSummariesByItemIdIn(List.of(item.getId())).get(0);
+    }
+}
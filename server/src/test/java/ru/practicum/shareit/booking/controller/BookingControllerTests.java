@@ -13,23 +13,34 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BulkBookingDtoResponse;
+import ru.practicum.shareit.booking.dto.RequestBookingStates;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.mapping.BookingMapper;
+import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.exception.ErrorHandler;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.user.dto.UserDtoResponse;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static java.time.format.DateTimeFormatter.ofPattern;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,6 +53,9 @@ public class BookingControllerTests {
     @Mock
     BookingMapper mockBookingMapper;
 
+    @Mock
+    BookingExportService mockBookingExportService;
+
     @InjectMocks
     BookingController bookingController;
 
@@ -129,4 +143,62 @@ public class BookingControllerTests {
                 .andExpect(jsonPath("$.item.requestId", is(dtoResponse.getItem().getRequestId()), Integer.class));
     }
 
+    @Test
+    void shouldCountBookingsOfUserByState() throws Exception {
+        when(mockBookingService.countBookingsOfUserByState(1, RequestBookingStates.WAITING))
+                .thenReturn(3L);
+
+        mockMvc.perform(get("/bookings/count?state=WAITING")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"));
+    }
+
+    @Test
+    void shouldCreateBookingsInBulk() throws Exception {
+        List<BulkBookingDtoResponse> results = List.of(
+                BulkBookingDtoResponse.builder().index(0).booking(dtoResponse).build(),
+                BulkBookingDtoResponse.builder().index(1).error("Попытка арендовать свою вещь").build()
+        );
+        when(mockBookingService.createAll(List.of(dtoRequest, dtoRequest), 2))
+                .thenReturn(List.of());
+        when(mockBookingMapper.creationResultsToDtoResponses(any()))
+                .thenReturn(results);
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(mapper.writeValueAsString(List.of(dtoRequest, dtoRequest)))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].booking.id", is(dtoResponse.getId()), Integer.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Попытка арендовать свою вещь")));
+    }
+
+    @Test
+    void shouldRejectExportInUnknownFormat() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export?format=xlsx")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(mockBookingExportService);
+    }
+
+    @Test
+    void shouldNotExportBookingsOfNonExistentUser() throws Exception {
+        doThrow(new EntityDoesNotExistException("Попытка получения несуществующего пользователя"))
+                .when(mockBookingExportService).validateUser(100500);
+
+        mockMvc.perform(get("/bookings/export?format=csv")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 100500))
+                .andExpect(status().isNotFound());
+        verify(mockBookingExportService, never()).exportBookingsOfUser(anyInt(), any(), any());
+    }
+
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ApprovedBookingCalendarTests {
+
+    static final int ITEM_ID = 1;
+
+    @Mock
+    BookingRepository mockBookingRepo;
+
+    Item item = Item.builder().id(ITEM_ID).build();
+
+    @Test
+    void shouldCheckAddedPeriodWithoutReloading() {
+        ApprovedBookingCalendar calendar = new ApprovedBookingCalendar(mockBookingRepo, 100, Duration.ofHours(1));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(mockBookingRepo.findBookingsByItemIdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
+
+        assertFalse(calendar.overlaps(booking(2, start.plusHours(1), start.plusHours(3))));
+        calendar.addAfterCommit(booking(1, start, start.plusHours(2)));
+
+        assertTrue(calendar.overlaps(booking(2, start.plusHours(1), start.plusHours(3))));
+        verify(mockBookingRepo, times(1))
+                .findBookingsByItemIdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(BookingStatus.APPROVED), any());
+    }
+
+    @Test
+    void shouldDropEndedPeriodsWhenAddingPeriod() throws InterruptedException {
+        ApprovedBookingCalendar calendar = new ApprovedBookingCalendar(mockBookingRepo, 100, Duration.ofHours(1));
+        LocalDateTime now = LocalDateTime.now();
+        when(mockBookingRepo.findBookingsByItemIdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(booking(1, now.minusHours(1), now.plusNanos(Duration.ofMillis(50).toNanos()))));
+        Booking startedBefore = booking(3, now.minusHours(2), now.minusMinutes(30));
+
+        assertTrue(calendar.overlaps(startedBefore));
+        Thread.sleep(100);
+        calendar.addAfterCommit(booking(2, now.plusDays(1), now.plusDays(2)));
+
+        assertFalse(calendar.overlaps(startedBefore));
+    }
+
+    @Test
+    void shouldReloadPeriodsOfItemNotCheckedRecently() throws InterruptedException {
+        ApprovedBookingCalendar calendar = new ApprovedBookingCalendar(mockBookingRepo, 100, Duration.ofMillis(10));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(mockBookingRepo.findBookingsByItemIdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
+
+        calendar.overlaps(booking(1, start, start.plusHours(2)));
+        Thread.sleep(50);
+        calendar.overlaps(booking(1, start, start.plusHours(2)));
+
+        verify(mockBookingRepo, times(2))
+                .findBookingsByItemIdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(BookingStatus.APPROVED), any());
+    }
+
+    private Booking booking(int id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
@@ -6,10 +6,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.RequestBookingStates;
 import ru.practicum.shareit.booking.entity.Booking;
@@ -21,6 +20,8 @@ import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.exception.EntityIsNotAvailableException;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -48,6 +49,21 @@ public class BookingServiceImplTests {
     @Mock
     BookingMapper mockBookingMapper;
 
+    @Mock
+    CacheManager mockCacheManager;
+
+    @Mock
+    ApprovedBookingCalendar mockApprovedBookingCalendar;
+
+    @Mock
+    ItemBookingLock mockItemBookingLock;
+
+    @Mock
+    ItemBookingSummaryService mockItemBookingSummaryService;
+
+    @Mock
+    ApplicationEventPublisher mockEventPublisher;
+
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -194,232 +210,249 @@ public class BookingServiceImplTests {
     }
 
     @Test
-    void shouldFindBookingsByItemInIfStateIsAll() {
-        List<Item> items = Collections.singletonList(item);
-        when(mockItemService.findItemsOfUser(1))
-                .thenReturn(items);
+    void shouldFindBookingsByItemOwnerIdIfStateIsAll() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(ownerOfItem);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findBookingsByItemIn(items, pageRequest))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findBookingsByItemOwnerId(1, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfItemsOwnerByState(1, RequestBookingStates.ALL, from, size);
 
-        verify(mockItemService, times(1))
-                .findItemsOfUser(1);
+        verify(mockUserService, times(1))
+                .findReferenceById(1);
         verify(mockBookingRepo, times(1))
-                .findBookingsByItemIn(items, pageRequest);
+                .findBookingsByItemOwnerId(1, first.getPosition(), first.getId(), pageRequest);
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
-    void shouldFindCurrentBookingsByItemInIfStateIsCurrent() {
-        List<Item> items = Collections.singletonList(item);
-        when(mockItemService.findItemsOfUser(1))
-                .thenReturn(items);
+    void shouldFindCurrentBookingsByItemOwnerIdIfStateIsCurrent() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(ownerOfItem);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findCurrentBookingsByItemIn(items, pageRequest))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findCurrentBookingsByItemOwnerId(1, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfItemsOwnerByState(1, RequestBookingStates.CURRENT, from, size);
 
-        verify(mockItemService, times(1))
-                .findItemsOfUser(1);
+        verify(mockUserService, times(1))
+                .findReferenceById(1);
         verify(mockBookingRepo, times(1))
-                .findCurrentBookingsByItemIn(items, pageRequest);
+                .findCurrentBookingsByItemOwnerId(1, first.getPosition(), first.getId(), pageRequest);
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
-    void shouldFindNothingByItemInIfStateIsPast() {
-        List<Item> items = Collections.singletonList(item);
-        when(mockItemService.findItemsOfUser(1))
-                .thenReturn(items);
+    void shouldFindNothingByItemOwnerIdIfStateIsPast() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(ownerOfItem);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.emptyList();
-        when(mockBookingRepo.findBookingsByItemInAndEndIsBefore(eq(items), any(LocalDateTime.class), eq(pageRequest)))
-                .thenReturn(Page.empty());
+        when(mockBookingRepo.findBookingsByItemOwnerIdAndEndIsBefore(eq(1), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest)))
+                .thenReturn(Collections.emptyList());
 
         List<Booking> actualBookings = bookingService.findBookingsOfItemsOwnerByState(1, RequestBookingStates.PAST, from, size);
 
-        verify(mockItemService, times(1))
-                .findItemsOfUser(1);
+        verify(mockUserService, times(1))
+                .findReferenceById(1);
         verify(mockBookingRepo, times(1))
-                .findBookingsByItemInAndEndIsBefore(eq(items), any(LocalDateTime.class), eq(pageRequest));
+                .findBookingsByItemOwnerIdAndEndIsBefore(eq(1), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest));
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
-    void shouldFindBookingsByItemInAndStartIsAfterIfStateIsFuture() {
-        List<Item> items = Collections.singletonList(item);
-        when(mockItemService.findItemsOfUser(1))
-                .thenReturn(items);
+    void shouldFindBookingsByItemOwnerIdAndStartIsAfterIfStateIsFuture() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(ownerOfItem);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findBookingsByItemInAndStartIsAfter(eq(items), any(LocalDateTime.class), eq(pageRequest)))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findBookingsByItemOwnerIdAndStartIsAfter(eq(1), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest)))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfItemsOwnerByState(1, RequestBookingStates.FUTURE, from, size);
 
-        verify(mockItemService, times(1))
-                .findItemsOfUser(1);
+        verify(mockUserService, times(1))
+                .findReferenceById(1);
         verify(mockBookingRepo, times(1))
-                .findBookingsByItemInAndStartIsAfter(eq(items), any(LocalDateTime.class), eq(pageRequest));
+                .findBookingsByItemOwnerIdAndStartIsAfter(eq(1), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest));
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
-    void shouldFindBookingsByItemInAndStatusIfStateIsWaiting() {
-        List<Item> items = Collections.singletonList(item);
-        when(mockItemService.findItemsOfUser(1))
-                .thenReturn(items);
+    void shouldFindBookingsByItemOwnerIdAndStatusIfStateIsWaiting() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(ownerOfItem);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         BookingStatus status = BookingStatus.WAITING;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findBookingsByItemInAndStatus(items, status, pageRequest))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findBookingsByItemOwnerIdAndStatus(1, status, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfItemsOwnerByState(1, RequestBookingStates.WAITING, from, size);
 
-        verify(mockItemService, times(1))
-                .findItemsOfUser(1);
+        verify(mockUserService, times(1))
+                .findReferenceById(1);
         verify(mockBookingRepo, times(1))
-                .findBookingsByItemInAndStatus(items, status, pageRequest);
+                .findBookingsByItemOwnerIdAndStatus(1, status, first.getPosition(), first.getId(), pageRequest);
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
     void shouldFindBookingsByBookerIfStateIsAll() {
-        when(mockUserService.findById(2))
+        when(mockUserService.findReferenceById(2))
                 .thenReturn(booker);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findBookingsByBooker(booker, pageRequest))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findBookingsByBooker(booker, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfUserByState(2, RequestBookingStates.ALL, from, size);
 
         verify(mockUserService, times(1))
-                .findById(2);
+                .findReferenceById(2);
         verify(mockBookingRepo, times(1))
-                .findBookingsByBooker(booker, pageRequest);
+                .findBookingsByBooker(booker, first.getPosition(), first.getId(), pageRequest);
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
     void shouldFindCurrentBookingsByBookerIfStateIsCurrent() {
-        when(mockUserService.findById(2))
+        when(mockUserService.findReferenceById(2))
                 .thenReturn(booker);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findCurrentBookingsByBooker(booker, pageRequest))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findCurrentBookingsByBooker(booker, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfUserByState(2, RequestBookingStates.CURRENT, from, size);
 
         verify(mockUserService, times(1))
-                .findById(2);
+                .findReferenceById(2);
         verify(mockBookingRepo, times(1))
-                .findCurrentBookingsByBooker(booker, pageRequest);
+                .findCurrentBookingsByBooker(booker, first.getPosition(), first.getId(), pageRequest);
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
     void shouldFindNothingByBookerIfStateIsPast() {
-        when(mockUserService.findById(2))
+        when(mockUserService.findReferenceById(2))
                 .thenReturn(booker);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.emptyList();
-        when(mockBookingRepo.findBookingsByBookerAndEndIsBefore(eq(booker), any(LocalDateTime.class), eq(pageRequest)))
-                .thenReturn(Page.empty());
+        when(mockBookingRepo.findBookingsByBookerAndEndIsBefore(eq(booker), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest)))
+                .thenReturn(Collections.emptyList());
 
         List<Booking> actualBookings = bookingService.findBookingsOfUserByState(2, RequestBookingStates.PAST, from, size);
 
         verify(mockUserService, times(1))
-                .findById(2);
+                .findReferenceById(2);
         verify(mockBookingRepo, times(1))
-                .findBookingsByBookerAndEndIsBefore(eq(booker), any(LocalDateTime.class), eq(pageRequest));
+                .findBookingsByBookerAndEndIsBefore(eq(booker), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest));
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
     void shouldFindBookingsByBookerAndStartIsAfterIfStateIsFuture() {
-        when(mockUserService.findById(2))
+        when(mockUserService.findReferenceById(2))
                 .thenReturn(booker);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findBookingsByBookerAndStartIsAfter(eq(booker), any(LocalDateTime.class), eq(pageRequest)))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findBookingsByBookerAndStartIsAfter(eq(booker), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest)))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfUserByState(2, RequestBookingStates.FUTURE, from, size);
 
         verify(mockUserService, times(1))
-                .findById(2);
+                .findReferenceById(2);
         verify(mockBookingRepo, times(1))
-                .findBookingsByBookerAndStartIsAfter(eq(booker), any(LocalDateTime.class), eq(pageRequest));
+                .findBookingsByBookerAndStartIsAfter(eq(booker), any(LocalDateTime.class), eq(first.getPosition()), eq(first.getId()), eq(pageRequest));
         assertEquals(expectedBookings, actualBookings);
     }
 
     @Test
     void shouldFindBookingsByBookerAndStatusIfStateIsWaiting() {
-        when(mockUserService.findById(2))
+        when(mockUserService.findReferenceById(2))
                 .thenReturn(booker);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         BookingStatus status = BookingStatus.WAITING;
         List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
-        when(mockBookingRepo.findBookingsByBookerAndStatus(booker, status, pageRequest))
-                .thenReturn(new PageImpl<>(expectedBookings));
+        when(mockBookingRepo.findBookingsByBookerAndStatus(booker, status, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.findBookingsOfUserByState(2, RequestBookingStates.WAITING, from, size);
 
         verify(mockUserService, times(1))
-                .findById(2);
+                .findReferenceById(2);
+        verify(mockBookingRepo, times(1))
+                .findBookingsByBookerAndStatus(booker, status, first.getPosition(), first.getId(), pageRequest);
+        assertEquals(expectedBookings, actualBookings);
+    }
+
+    @Test
+    void shouldFindBookingsByBookerAfterCursor() {
+        when(mockUserService.findReferenceById(2))
+                .thenReturn(booker);
+        int size = 1;
+        Pageable pageRequest = OffsetPageRequest.of(0, size);
+        Cursor after = Cursor.of(expectedBooking.getStart(), 5);
+        List<Booking> expectedBookings = Collections.singletonList(expectedBooking);
+        when(mockBookingRepo.findBookingsByBooker(booker, after.getPosition(), 5, pageRequest))
+                .thenReturn(expectedBookings);
+
+        List<Booking> actualBookings = bookingService.findBookingsOfUserByState(2, RequestBookingStates.ALL, after, size);
+
         verify(mockBookingRepo, times(1))
-                .findBookingsByBookerAndStatus(booker, status, pageRequest);
+                .findBookingsByBooker(booker, after.getPosition(), 5, pageRequest);
         assertEquals(expectedBookings, actualBookings);
     }
 
+    @Test
+    void shouldCountBookingsByItemOwnerIdAndStatusIfStateIsRejected() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(ownerOfItem);
+        when(mockBookingRepo.countBookingsByItemOwnerIdAndStatus(1, BookingStatus.REJECTED))
+                .thenReturn(2L);
+
+        long actualCount = bookingService.countBookingsOfItemsOwnerByState(1, RequestBookingStates.REJECTED);
+
+        verify(mockBookingRepo, times(1))
+                .countBookingsByItemOwnerIdAndStatus(1, BookingStatus.REJECTED);
+        assertEquals(2L, actualCount);
+    }
+
     @Test
     void shouldFindBookingById() {
         when(mockBookingRepo.findById(1))
@@ -465,6 +498,46 @@ public class BookingServiceImplTests {
         assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
     }
 
+    @Test
+    void shouldThrowIfApprovedBookingOverlapsInCalendar() {
+        when(mockBookingRepo.findById(1))
+                .thenReturn(Optional.of(expectedBooking));
+        when(mockApprovedBookingCalendar.overlaps(expectedBooking))
+                .thenReturn(true);
+        String expectedMessage = "Вещь уже арендована на пересекающийся период";
+
+        String actualMessage = assertThrows(
+                EntityIsNotAvailableException.class,
+                () -> bookingService.update(1, true, 1)
+        ).getMessage();
+
+        verify(mockItemService, never())
+                .findByIdForUpdate(1);
+        verify(mockBookingRepo, never())
+                .save(expectedBooking);
+        assertEquals(expectedMessage, actualMessage);
+        assertEquals(BookingStatus.WAITING, expectedBooking.getStatus());
+    }
+
+    @Test
+    void shouldThrowIfApprovedBookingOverlapsInDatabase() {
+        when(mockBookingRepo.findById(1))
+                .thenReturn(Optional.of(expectedBooking));
+        when(mockBookingRepo.existsBookingByItemAndStatusAndStartIsBeforeAndEndIsAfterAndIdNot(
+                item, BookingStatus.APPROVED, expectedBooking.getEnd(), expectedBooking.getStart(), 1
+        )).thenReturn(true);
+
+        assertThrows(
+                EntityIsNotAvailableException.class,
+                () -> bookingService.update(1, true, 1)
+        );
+
+        verify(mockItemService, times(1))
+                .findByIdForUpdate(1);
+        verify(mockBookingRepo, never())
+                .save(expectedBooking);
+    }
+
     @Test
     void shouldRejectBooking() {
         when(mockBookingRepo.findById(1))
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadYourWritesFilterTests {
+
+    ReplicaRoutingContext context = new ReplicaRoutingContext(Duration.ofMinutes(1));
+
+    ReadYourWritesFilter filter = new ReadYourWritesFilter(context);
+
+    @Test
+    void shouldRouteReadSentRightAfterWriteResponseToPrimary() throws Exception {
+        AtomicBoolean readFromPrimary = new AtomicBoolean();
+
+        filter.doFilter(request("POST", 1), new MockHttpServletResponse(), (request, response) -> {
+            // the response reaches the client, whose next read arrives before this filter regains control
+            response.flushBuffer();
+            readFromPrimary.set(CompletableFuture.supplyAsync(() -> isReadOfUserFromPrimary(1)).join());
+        });
+
+        assertTrue(readFromPrimary.get());
+    }
+
+    @Test
+    void shouldKeepReadsOfOtherUsersOnReplica() throws Exception {
+        filter.doFilter(request("PATCH", 1), new MockHttpServletResponse(), (request, response) -> {
+        });
+
+        assertTrue(isReadOfUserFromPrimary(1));
+        assertFalse(isReadOfUserFromPrimary(2));
+    }
+
+    @Test
+    void shouldKeepReadsOfReaderOnReplica() throws Exception {
+        filter.doFilter(request("GET", 1), new MockHttpServletResponse(), (request, response) -> {
+        });
+
+        assertFalse(isReadOfUserFromPrimary(1));
+    }
+
+    private boolean isReadOfUserFromPrimary(int userId) {
+        context.setCallerId(userId);
+        try {
+            return context.isCallerRecentWriter();
+        } finally {
+            context.clearCallerId();
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, int userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/items");
+        request.addHeader("X-Sharer-User-Id", String.valueOf(userId));
+        return request;
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDtoRequest;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the server against two separate H2 databases. Nothing replicates between them,
+ * so a read shows which of them served it
+ */
+@SpringBootTest(
+        properties = {
+                "spring.flyway.enabled=true",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "shareit.datasource.replica.url=jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "shareit.datasource.replica.read-your-writes-window=1m"
+        }
+)
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReplicaRoutingTests {
+
+    final MockMvc mockMvc;
+
+    final UserService userService;
+
+    final ItemService itemService;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @TestConfiguration
+    static class ReplicaSchemaConfiguration {
+
+        @Bean
+        MigrateResult replicaSchema(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            return Flyway.configure()
+                    .dataSource(replicaDataSource)
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+        }
+    }
+
+    @Test
+    void shouldReadFromReplicaAndWriteToPrimary() {
+        User writtenUser = userService.create(UserDtoRequest.builder()
+                .name("Alex")
+                .email("Alex@primary.ru")
+                .build());
+        replicate(writtenUser.getId(), "Derrick", "Derrick@replica.ru");
+
+        List<String> emails = userService.findAll().stream().map(User::getEmail).collect(Collectors.toList());
+
+        assertEquals(List.of("Derrick@replica.ru"), emails);
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimary() throws Exception {
+        User owner = userService.create(UserDtoRequest.builder()
+                .name("John")
+                .email("John@primary.ru")
+                .build());
+        User stranger = userService.create(UserDtoRequest.builder()
+                .name("Gabe")
+                .email("Gabe@primary.ru")
+                .build());
+        replicate(owner.getId(), owner.getName(), owner.getEmail());
+        replicate(stranger.getId(), stranger.getName(), stranger.getEmail());
+
+        String body = mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Палатка\",\"description\":\"Двухместная\",\"available\":true}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int itemId = new ObjectMapper().readTree(body).get("id").asInt();
+
+        mockMvc.perform(get("/items?from=0&size=10").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemId));
+        mockMvc.perform(get("/items?from=0&size=10").header("X-Sharer-User-Id", stranger.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void shouldLoadCachedItemViewsFromPrimary() throws Exception {
+        User owner = userService.create(UserDtoRequest.builder()
+                .name("Fred")
+                .email("Fred@primary.ru")
+                .build());
+        User stranger = userService.create(UserDtoRequest.builder()
+                .name("Kate")
+                .email("Kate@primary.ru")
+                .build());
+        Item item = itemService.create(ItemDtoRequest.builder()
+                .name("Котелок")
+                .description("Походный")
+                .available(Boolean.TRUE)
+                .build(), owner.getId());
+
+        mockMvc.perform(get("/items/" + item.getId()).header("X-Sharer-User-Id", stranger.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Котелок"));
+    }
+
+    private void replicate(int id, String name, String email) {
+        new JdbcTemplate(replicaDataSource)
+                .update("INSERT INTO public.\"user\" (id, name, email) VALUES (?, ?, ?)", id, name, email);
+    }
+}
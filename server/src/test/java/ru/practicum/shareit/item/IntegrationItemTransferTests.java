@@ -0,0 +1,183 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemTransferService;
+import ru.practicum.shareit.streaming.ImportError;
+import ru.practicum.shareit.streaming.ImportReport;
+import ru.practicum.shareit.streaming.StreamFormat;
+import ru.practicum.shareit.user.dto.UserDtoRequest;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "db.name=item_transfer_test"
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IntegrationItemTransferTests {
+
+    final UserService userService;
+
+    final ItemService itemService;
+
+    final ItemTransferService itemTransferService;
+
+    User owner;
+
+    @BeforeEach
+    void setup() {
+        owner = userService.create(UserDtoRequest.builder()
+                .name("Alex")
+                .email("Alex@gmail.com")
+                .build());
+    }
+
+    @Test
+    void shouldImportNdjsonAndReportRejectedLines() throws IOException {
+        String input = "{\"name\":\"Кастрюля\",\"description\":\"Роскошная\",\"available\":true}\n" +
+                "{\"name\":\"Ложка\",\"description\":\n" +
+                "\n" +
+                "{\"name\":\"\",\"description\":\"Серебряная\",\"available\":true}\n" +
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":false,\"requestId\":100500}\n" +
+                "{\"name\":\"Шуруповерт\",\"description\":\"Антиквариантный\",\"available\":false}\n";
+
+        ImportReport report = importItems(StreamFormat.NDJSON, input);
+
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(2L, 4L, 5L), report.getErrors().stream()
+                .map(ImportError::getLine)
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(List.of("Кастрюля", "Шуруповерт"), itemService.findItemsOfUser(owner.getId()).stream()
+                .map(Item::getName)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldImportCsvWithHeader() throws IOException {
+        String input = "name,description,available\n" +
+                "Кастрюля,\"Роскошная, медная\",true\n" +
+                "Ложка,Серебряная,\n";
+
+        ImportReport report = importItems(StreamFormat.CSV, input);
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(new ImportError(3, "Не указана доступность вещи")), report.getErrors());
+        Item item = itemService.findItemsOfUser(owner.getId()).get(0);
+        assertEquals("Роскошная, медная", item.getDescription());
+    }
+
+    @Test
+    void shouldRejectCsvWithoutHeader() {
+        assertThrows(IllegalArgumentException.class, () -> importItems(StreamFormat.CSV, ""));
+    }
+
+    @Test
+    void shouldImportItemsInChunksAndExportThemLineByLine() throws IOException {
+        int count = 1234;
+        String input = IntStream.range(0, count)
+                .mapToObj(i -> "{\"name\":\"Вещь " + i + "\",\"description\":\"Описание\",\"available\":true}")
+                .collect(Collectors.joining("\n"));
+
+        ImportReport report = importItems(StreamFormat.NDJSON, input);
+        List<String> ndjson = exportItems(StreamFormat.NDJSON);
+        List<String> csv = exportItems(StreamFormat.CSV);
+
+        assertEquals(count, report.getImported());
+        assertEquals(count, ndjson.size());
+        assertEquals(count + 1, csv.size());
+        Item first = itemService.findItemsOfUser(owner.getId()).get(0);
+        assertEquals("{\"id\":" + first.getId() + ",\"name\":\"Вещь 0\",\"description\":\"Описание\"," +
+                "\"available\":true,\"requestId\":null}", ndjson.get(0));
+        assertEquals("id,name,description,available,requestId", csv.get(0));
+        assertEquals(first.getId() + ",\"Вещь 0\",Описание,true,", csv.get(1));
+    }
+
+    @Test
+    void shouldImportCsvExportedBefore() throws IOException {
+        itemService.create(ItemDtoRequest.builder()
+                .name("Кастрюля")
+                .description("Роскошная,\nмедная")
+                .available(Boolean.TRUE)
+                .build(), owner.getId());
+        itemService.create(ItemDtoRequest.builder()
+                .name("Ложка")
+                .description("Серебряная")
+                .available(Boolean.FALSE)
+                .build(), owner.getId());
+        String export = String.join("\n", exportItems(StreamFormat.CSV));
+
+        ImportReport report = importItems(StreamFormat.CSV, export);
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(), report.getErrors());
+        List<Item> items = itemService.findItemsOfUser(owner.getId());
+        assertEquals(4, items.size());
+        assertEquals("Роскошная,\nмедная", items.get(2).getDescription());
+        assertEquals(Boolean.FALSE, items.get(3).getAvailable());
+    }
+
+    @Test
+    void shouldNumberRejectedCsvRecordsByTheirFirstLine() throws IOException {
+        String input = "\uFEFF\"name\",description,available\n" +
+                "Кастрюля,\"Роскошная,\nмедная\",true\n" +
+                "Ложка,Серебряная,\n" +
+                "Вилка,Мельхиоровая,может быть\n" +
+                "Нож,Столовый,true\n";
+
+        ImportReport report = importItems(StreamFormat.CSV, input);
+
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals(5, report.getErrors().get(1).getLine());
+        assertEquals(2, report.getErrors().size());
+    }
+
+    @Test
+    void shouldNotExportItemsOfOtherOwners() throws IOException {
+        User otherOwner = userService.create(UserDtoRequest.builder()
+                .name("John")
+                .email("John@yandex.ru")
+                .build());
+        itemService.create(ItemDtoRequest.builder()
+                .name("Кастрюля")
+                .description("Роскошная")
+                .available(Boolean.TRUE)
+                .build(), otherOwner.getId());
+
+        assertEquals(List.of(), exportItems(StreamFormat.NDJSON));
+    }
+
+    private ImportReport importItems(StreamFormat format, String input) throws IOException {
+        return itemTransferService.importItems(
+                owner.getId(), format, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    private List<String> exportItems(StreamFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        itemTransferService.exportItems(owner.getId(), format, output);
+        return output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+}
@@ -21,8 +21,11 @@ import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.LongItemDtoResponse;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemTransferService;
 import ru.practicum.shareit.item.mapping.ItemMapperImpl;
 import ru.practicum.shareit.request.entity.ItemRequest;
+import ru.practicum.shareit.streaming.ImportReport;
+import ru.practicum.shareit.streaming.StreamFormat;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -34,6 +37,7 @@ import java.util.List;
 import static java.time.format.DateTimeFormatter.ofPattern;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -48,6 +52,9 @@ public class ItemControllerTests {
     @Mock
     ItemMapperImpl mockItemMapper;
 
+    @Mock
+    ItemTransferService mockItemTransferService;
+
     @Mock
     UserService mockUserService;
 
@@ -261,4 +268,45 @@ public class ItemControllerTests {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void shouldImportItemsWithFormatOfContentType() throws Exception {
+        ImportReport report = new ImportReport();
+        report.addImported(2);
+        report.reject(3, "Не указано описание вещи");
+        when(mockItemTransferService.importItems(eq(1), eq(StreamFormat.CSV), any()))
+                .thenReturn(report);
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("text/csv")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content("name,description,available\n")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].error", is("Не указано описание вещи")));
+    }
+
+    @Test
+    void shouldRejectImportInUnsupportedFormat() throws Exception {
+        mockMvc.perform(post("/items/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<items/>")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(mockItemTransferService);
+    }
+
+    @Test
+    void shouldRejectExportInUnknownFormat() throws Exception {
+        mockMvc.perform(get("/items/export?format=xml")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(mockItemTransferService);
+    }
+
 }
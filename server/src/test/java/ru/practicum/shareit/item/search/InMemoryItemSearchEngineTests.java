@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTests {
+
+    @Mock
+    ItemRepository mockItemRepo;
+
+    @InjectMocks
+    InMemoryItemSearchEngine searchEngine;
+
+    Item saucepan;
+    Item drill;
+    Item spoon;
+    Item screwdriver;
+
+    @BeforeEach
+    void setUp() {
+        saucepan = Item.builder().id(1).name("Кастрюля").description("Большая, для дрели не подходит").available(true).build();
+        drill = Item.builder().id(2).name("Дрель").description("Мощная").available(true).build();
+        spoon = Item.builder().id(3).name("Ложка").description("Серебряная").available(true).build();
+        screwdriver = Item.builder().id(4).name("Дрель-шуруповерт").description("Сломана").available(false).build();
+        List.of(saucepan, drill, spoon, screwdriver).forEach(searchEngine::index);
+    }
+
+    @Test
+    void shouldLoadOnlyAvailableMatchesAndRankNameMatchesFirst() {
+        List<Item> items = List.of(saucepan, drill, spoon, screwdriver);
+        when(mockItemRepo.findAllById(anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Integer> ids = invocation.getArgument(0);
+                    return items.stream().filter(item -> ids.contains(item.getId())).collect(Collectors.toList());
+                });
+
+        List<Item> actualItems = searchEngine.search("дрел", PageRequest.of(0, 10));
+
+        verify(mockItemRepo, times(1))
+                .findAllById(List.of(2, 1));
+        assertEquals(List.of(drill, saucepan), actualItems);
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        drill.setName("Перфоратор");
+        searchEngine.index(drill);
+        when(mockItemRepo.findAllById(anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Integer> ids = invocation.getArgument(0);
+                    return List.of(saucepan, drill).stream()
+                            .filter(item -> ids.contains(item.getId()))
+                            .collect(Collectors.toList());
+                });
+
+        List<Item> actualItems = searchEngine.search("перфоратор", PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill), actualItems);
+    }
+
+    @Test
+    void shouldNotQueryRepositoryWhenNoItemContainsText() {
+        List<Item> actualItems = searchEngine.search("молоток", PageRequest.of(0, 10));
+
+        verify(mockItemRepo, never())
+                .findAllById(anyCollection());
+        assertTrue(actualItems.isEmpty());
+    }
+
+    @Test
+    void shouldLoadOnlyItemsOfRequestedPage() {
+        when(mockItemRepo.findAllById(List.of(1)))
+                .thenReturn(List.of(saucepan));
+
+        List<Item> actualItems = searchEngine.search("дрел", PageRequest.of(1, 1));
+
+        assertEquals(List.of(saucepan), actualItems);
+    }
+
+    @Test
+    void shouldLeaveQueryShorterThanTrigramToLikeScan() {
+        PageRequest pageRequest = PageRequest.of(1, 1);
+        when(mockItemRepo.findItemsContainingTextAndAvailable("а", pageRequest))
+                .thenReturn(List.of(spoon));
+
+        List<Item> actualItems = searchEngine.search("а", pageRequest);
+
+        verify(mockItemRepo, never())
+                .findAllById(anyCollection());
+        assertEquals(List.of(spoon), actualItems);
+    }
+}
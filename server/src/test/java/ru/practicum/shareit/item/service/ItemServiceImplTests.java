@@ -6,13 +6,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.entity.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.mapping.BookingMapper;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.exception.EntityIsNotAvailableException;
@@ -26,6 +27,9 @@ import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.mapping.ItemMapper;
 import ru.practicum.shareit.item.mapping.ItemPatchUpdater;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.entity.User;
@@ -35,6 +39,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -71,6 +76,18 @@ public class ItemServiceImplTests {
     @Mock
     ItemPatchUpdater mockItemPatchUpdater;
 
+    @Mock
+    ItemSearchEngine mockSearchEngine;
+
+    @Mock
+    ItemViewCache mockItemViewCache;
+
+    @Mock
+    ItemBookingSummaryService mockItemBookingSummaryService;
+
+    @Mock
+    ApplicationEventPublisher mockEventPublisher;
+
     @InjectMocks
     ItemServiceImpl itemService;
 
@@ -96,7 +113,7 @@ public class ItemServiceImplTests {
 
     @Test
     void shouldCreateItemWithoutRequest() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(owner);
         ItemDtoRequest dto = ItemDtoRequest.builder()
                 .name("Кастрюля")
@@ -112,17 +129,19 @@ public class ItemServiceImplTests {
         Item actualItem = itemService.create(dto, 1);
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         verify(mockItemMapper, times(1))
                 .dtoRequestToItem(dto, owner, null);
         verify(mockItemRepo, times(1))
                 .save(expectedItem);
+        verify(mockSearchEngine, times(1))
+                .index(expectedItem);
         assertEquals(expectedItem, actualItem);
     }
 
     @Test
     void shouldCreateItemWithRequest() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(owner);
         ItemRequest request = ItemRequest.builder()
                 .id(1)
@@ -144,7 +163,7 @@ public class ItemServiceImplTests {
         Item actualItem = itemService.create(dto, 1);
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         verify(mockRequestService, times(1))
                 .findById(1);
         verify(mockItemMapper, times(1))
@@ -157,7 +176,7 @@ public class ItemServiceImplTests {
 
     @Test
     void shouldFindItemsOfOwner() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(owner);
         List<Item> expectedItems = Collections.singletonList(expectedItem);
         when(mockItemRepo.findItemsByOwnerOrderById(owner))
@@ -166,7 +185,7 @@ public class ItemServiceImplTests {
         List<Item> actualItems = itemService.findItemsOfUser(1);
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         verify(mockItemRepo, times(1))
                 .findItemsByOwnerOrderById(owner);
         assertEquals(expectedItems, actualItems);
@@ -202,25 +221,20 @@ public class ItemServiceImplTests {
 
     @Test
     void shouldFindLongItemDtosOfUser() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(owner);
-        when(mockItemRepo.findById(1))
-                .thenReturn(Optional.of(expectedItem));
         int from = 0;
         int size = 1;
-        int page = from / size;
-        PageRequest pageRequest = PageRequest.of(page, size);
-        when(mockItemRepo.findItemsByOwnerOrderById(owner, pageRequest))
-                .thenReturn(new PageImpl<>(Collections.singletonList(expectedItem)));
-        when(mockCommentRepo.findAllByItem(expectedItem))
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        List<Item> items = Collections.singletonList(expectedItem);
+        when(mockItemRepo.findItemsByOwnerAndIdGreaterThanOrderById(owner, 0, pageRequest))
+                .thenReturn(items);
+        when(mockItemBookingSummaryService.findSummaries(eq(List.of(1)), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1, ItemBookingSummary.builder().itemId(1).build()));
+        when(mockCommentRepo.findAllByItemIn(items))
                 .thenReturn(Collections.emptyList());
         when(mockCommentMapper.commentsToDtoResponses(Collections.emptyList()))
                 .thenReturn(Collections.emptyList());
-        PageRequest pageRequestForBookings = PageRequest.of(0, 1);
-        when(mockBookingRepo.findLastBookingByItem(expectedItem, pageRequestForBookings))
-                .thenReturn(Page.empty());
-        when(mockBookingRepo.findNextBookingByItem(expectedItem, pageRequestForBookings))
-                .thenReturn(Page.empty());
         when(mockBookingMapper.bookingToShortDtoResponse(null))
                 .thenReturn(null);
         LongItemDtoResponse expectedLongItemDto = LongItemDtoResponse.builder()
@@ -239,17 +253,15 @@ public class ItemServiceImplTests {
         List<LongItemDtoResponse> actualLongItemDtos = itemService.findLongItemDtosOfUser(1, 0, 1);
 
         verify(mockUserService, times(1))
-                .findById(1);
-        verify(mockItemRepo, times(1))
-                .findById(1);
+                .findReferenceById(1);
+        verify(mockItemRepo, never())
+                .findById(anyInt());
+        verify(mockItemBookingSummaryService, times(1))
+                .findSummaries(eq(List.of(1)), any(LocalDateTime.class));
         verify(mockCommentRepo, times(1))
-                .findAllByItem(expectedItem);
+                .findAllByItemIn(items);
         verify(mockCommentMapper, times(1))
                 .commentsToDtoResponses(Collections.emptyList());
-        verify(mockBookingRepo, times(1))
-                .findLastBookingByItem(expectedItem, pageRequestForBookings);
-        verify(mockBookingRepo, times(1))
-                .findNextBookingByItem(expectedItem, pageRequestForBookings);
         verify(mockBookingMapper, times(2))
                 .bookingToShortDtoResponse(null);
         verify(mockItemMapper, times(1))
@@ -257,21 +269,58 @@ public class ItemServiceImplTests {
         assertEquals(expectedLongItemDtos, actualLongItemDtos);
     }
 
+    @Test
+    void shouldTakeLastAndNextBookingsFromSummaryWhenFindLongItemDtosOfUser() {
+        when(mockUserService.findReferenceById(1))
+                .thenReturn(owner);
+        Pageable pageRequest = OffsetPageRequest.of(0, 10);
+        List<Item> items = Collections.singletonList(expectedItem);
+        when(mockItemRepo.findItemsByOwnerAndIdGreaterThanOrderById(owner, 0, pageRequest))
+                .thenReturn(items);
+        Booking lastBooking = Booking.builder()
+                .id(1)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(expectedItem)
+                .build();
+        Booking nextBooking = Booking.builder()
+                .id(2)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(expectedItem)
+                .build();
+        when(mockItemBookingSummaryService.findSummaries(eq(List.of(1)), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1, ItemBookingSummary.builder()
+                        .itemId(1)
+                        .lastBooking(lastBooking)
+                        .nextBooking(nextBooking)
+                        .nextBookingStart(nextBooking.getStart())
+                        .build()));
+        when(mockCommentRepo.findAllByItemIn(items))
+                .thenReturn(Collections.emptyList());
+
+        itemService.findLongItemDtosOfUser(1, 0, 10);
+
+        verify(mockBookingMapper, times(1))
+                .bookingToShortDtoResponse(lastBooking);
+        verify(mockBookingMapper, times(1))
+                .bookingToShortDtoResponse(nextBooking);
+    }
+
     @Test
     void shouldFindItemsContainingText() {
         String text = "Кастрюля";
         int from = 0;
         int size = 1;
-        int page = from / size;
-        PageRequest pageRequest = PageRequest.of(page, size);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
         List<Item> expectedItems = Collections.singletonList(expectedItem);
-        when(mockItemRepo.findItemsContainingTextAndAvailable(text, pageRequest))
-                .thenReturn(new PageImpl<>(expectedItems));
+        when(mockSearchEngine.search(text, pageRequest))
+                .thenReturn(expectedItems);
 
         List<Item> actualItems = itemService.findItemsContainingText(text, from, size);
 
-        verify(mockItemRepo, times(1))
-                .findItemsContainingTextAndAvailable(text, pageRequest);
+        verify(mockSearchEngine, times(1))
+                .search(text, pageRequest);
         assertEquals(expectedItems, actualItems);
     }
 
@@ -302,6 +351,8 @@ public class ItemServiceImplTests {
                 .updateItem(expectedItem, dto);
         verify(mockItemRepo, times(1))
                 .save(expectedItem);
+        verify(mockSearchEngine, times(1))
+                .index(expectedItem);
         assertEquals(expectedItem, actualItem);
     }
 
@@ -349,14 +400,9 @@ public class ItemServiceImplTests {
                 .thenReturn(author);
         when(mockItemRepo.findById(1))
                 .thenReturn(Optional.of(expectedItem));
-        Booking bookingOfAuthor = Booking.builder()
-                .status(BookingStatus.APPROVED)
-                .start(LocalDateTime.now().minusDays(1))
-                .item(expectedItem)
-                .build();
-        List<Booking> bookingsOfAuthor = Collections.singletonList(bookingOfAuthor);
-        when(mockBookingRepo.findBookingsByBooker(author))
-                .thenReturn(bookingsOfAuthor);
+        when(mockBookingRepo.existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+                eq(author), eq(expectedItem), eq(BookingStatus.APPROVED), any(LocalDateTime.class)
+        )).thenReturn(true);
         Comment expectedComment = Comment.builder()
                 .id(1)
                 .text("Dislike, unsub")
@@ -375,7 +421,9 @@ public class ItemServiceImplTests {
         verify(mockItemRepo, times(1))
                 .findById(1);
         verify(mockBookingRepo, times(1))
-                .findBookingsByBooker(author);
+                .existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+                        eq(author), eq(expectedItem), eq(BookingStatus.APPROVED), any(LocalDateTime.class)
+                );
         verify(mockCommentMapper, times(1))
                 .dtoRequestToComment(dto, expectedItem, author);
         verify(mockCommentRepo, times(1))
@@ -393,8 +441,9 @@ public class ItemServiceImplTests {
                 .thenReturn(author);
         when(mockItemRepo.findById(1))
                 .thenReturn(Optional.of(expectedItem));
-        when(mockBookingRepo.findBookingsByBooker(author))
-                .thenReturn(Collections.emptyList());
+        when(mockBookingRepo.existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+                eq(author), eq(expectedItem), eq(BookingStatus.APPROVED), any(LocalDateTime.class)
+        )).thenReturn(false);
         CommentDtoRequest dto = new CommentDtoRequest();
         String expectedMessage = "У данного пользователя нет прав для оставления комментария у этой вещи";
 
@@ -408,7 +457,9 @@ public class ItemServiceImplTests {
         verify(mockItemRepo, times(1))
                 .findById(1);
         verify(mockBookingRepo, times(1))
-                .findBookingsByBooker(author);
+                .existsBookingByBookerAndItemAndStatusAndStartIsBefore(
+                        eq(author), eq(expectedItem), eq(BookingStatus.APPROVED), any(LocalDateTime.class)
+                );
         assertEquals(expectedMessage, actualMessage);
     }
 
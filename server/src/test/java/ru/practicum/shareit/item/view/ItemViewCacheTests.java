@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.view;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.ShortBookingDtoResponse;
+import ru.practicum.shareit.item.dto.LongItemDtoResponse;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemViewCacheTests {
+
+    static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    AtomicInteger loads;
+
+    ShortBookingDtoResponse nextBooking;
+
+    IntFunction<ItemView> loader;
+
+    @BeforeEach
+    void setUp() {
+        loads = new AtomicInteger();
+        nextBooking = null;
+        loader = itemId -> {
+            loads.incrementAndGet();
+            return new ItemView(
+                    1,
+                    LongItemDtoResponse.builder().id(itemId).nextBooking(nextBooking).build(),
+                    LongItemDtoResponse.builder().id(itemId).build()
+            );
+        };
+    }
+
+    @Test
+    void shouldLoadViewsOnceForOwnerAndOtherUsers() {
+        ItemViewCache cache = new ItemViewCache(new NoSharedItemViewStore(), TIME_TO_LIVE, 100);
+        nextBooking = ShortBookingDtoResponse.builder().id(5).start(LocalDateTime.now().plusDays(1)).build();
+
+        LongItemDtoResponse ownerView = cache.get(1, 1, loader);
+        LongItemDtoResponse guestView = cache.get(1, 2, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(nextBooking, ownerView.getNextBooking());
+        assertNull(guestView.getNextBooking());
+        assertSame(ownerView, cache.get(1, 1, loader));
+    }
+
+    @Test
+    void shouldReloadViewAfterItemChanged() {
+        ItemViewCache cache = new ItemViewCache(new NoSharedItemViewStore(), TIME_TO_LIVE, 100);
+        cache.get(1, 2, loader);
+
+        cache.onItemChanged(new ItemChangedEvent(1));
+        cache.get(1, 2, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldReloadViewOnceNextBookingStarted() {
+        ItemViewCache cache = new ItemViewCache(new NoSharedItemViewStore(), TIME_TO_LIVE, 100);
+        nextBooking = ShortBookingDtoResponse.builder().id(5).start(LocalDateTime.now().minusSeconds(1)).build();
+
+        cache.get(1, 1, loader);
+        cache.get(1, 1, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldKeepViewUntilNextBookingStarts() {
+        LocalDateTime start = LocalDateTime.now().plusSeconds(30);
+        nextBooking = ShortBookingDtoResponse.builder().id(5).start(start).build();
+        ItemView view = loader.apply(1);
+
+        Duration timeToLive = view.timeToLive(TIME_TO_LIVE);
+
+        assertTrue(timeToLive.compareTo(Duration.ofSeconds(30)) <= 0);
+        assertTrue(timeToLive.compareTo(Duration.ofSeconds(20)) > 0);
+    }
+
+    @Test
+    void shouldShareViewsBetweenInstancesThroughSharedStore() {
+        SharedItemViewStore sharedStore = new InMemorySharedItemViewStore();
+        ItemViewCache firstInstanceCache = new ItemViewCache(sharedStore, TIME_TO_LIVE, 100);
+        ItemViewCache secondInstanceCache = new ItemViewCache(sharedStore, TIME_TO_LIVE, 100);
+
+        firstInstanceCache.get(1, 2, loader);
+        secondInstanceCache.get(1, 2, loader);
+        firstInstanceCache.onItemChanged(new ItemChangedEvent(1));
+        secondInstanceCache.get(2, 2, loader);
+
+        assertEquals(2, loads.get());
+        assertNull(sharedStore.get(1));
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.persistence;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts the same number of users, items and bookings row by row, as identity columns force Hibernate to do,
+ * and in JDBC batches with ids taken from the pooled sequences, logging the throughput of both ways.
+ * Runs only in the {@code load} profile: {@code mvn test -P load}
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:insert_throughput",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.springframework.orm.jpa=WARN",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "logging.level.org.springframework.transaction=WARN",
+                "logging.level.org.springframework.transaction.interceptor=WARN",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+        }
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class InsertThroughputTests {
+
+    static final int ROWS = 2000;
+
+    final EntityManager entityManager;
+
+    final TransactionTemplate transactionTemplate;
+
+    final UserRepository userRepository;
+
+    final ItemRepository itemRepository;
+
+    final BookingRepository bookingRepository;
+
+    @Test
+    void shouldInsertUsersItemsAndBookingsInBatches() {
+        User owner = transactionTemplate.execute(status -> userRepository.save(user("owner")));
+        Item item = transactionTemplate.execute(status -> itemRepository.save(item(owner, 0)));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        compare("users", userRepository, i -> user(i + "-" + System.nanoTime()));
+        compare("items", itemRepository, i -> item(owner, i));
+        compare("bookings", bookingRepository, i -> Booking.builder()
+                .start(start.plusDays(i))
+                .end(start.plusDays(i).plusHours(1))
+                .status(BookingStatus.WAITING)
+                .item(item)
+                .booker(owner)
+                .build());
+    }
+
+    private <T> void compare(String entities, JpaRepository<T, Integer> repository, IntFunction<T> factory) {
+        InsertResult rowByRow = insert(() -> IntStream.range(0, ROWS).forEach(i -> {
+            repository.save(factory.apply(i));
+            entityManager.flush();
+        }));
+        InsertResult batched = insert(() -> {
+            repository.saveAll(IntStream.range(0, ROWS).mapToObj(factory).collect(Collectors.toList()));
+            entityManager.flush();
+        });
+
+        log.info("Вставка {} {}: по одной строке {} в секунду ({} запросов), пакетами {} в секунду ({} запросов)",
+                ROWS, entities, String.format("%.1f", ROWS / rowByRow.seconds), rowByRow.statements,
+                String.format("%.1f", ROWS / batched.seconds), batched.statements);
+        assertTrue(batched.statements * 10 < rowByRow.statements, entities + ": " + List.of(rowByRow, batched));
+    }
+
+    private InsertResult insert(Runnable inserts) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> inserts.run());
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        return new InsertResult(seconds, statistics.getPrepareStatementCount());
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .name(name)
+                .email(name + "@insert.ru")
+                .build();
+    }
+
+    private static Item item(User owner, int number) {
+        return Item.builder()
+                .name("Вещь " + number)
+                .description("Вещь для проверки вставки")
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    private static class InsertResult {
+
+        final double seconds;
+
+        final long statements;
+
+        InsertResult(double seconds, long statements) {
+            this.seconds = seconds;
+            this.statements = statements;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f с, %d запросов", seconds, statements);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.entity.ItemRequest;
@@ -142,6 +143,36 @@ public class ItemRequestControllerTests {
                 .andExpect(content().string("[]"));
     }
 
+    @Test
+    void shouldGetRequestsAfterCursorAndReturnNextCursor() throws Exception {
+        Cursor after = Cursor.of(LocalDateTime.of(2023, 1, 2, 3, 4, 5), 7);
+        ItemRequest lastRequest = ItemRequest.builder()
+                .id(5)
+                .created(LocalDateTime.of(2023, 1, 1, 0, 0))
+                .build();
+        when(mockRequestService.findRequestsOfOtherUsers(1, after, 1))
+                .thenReturn(List.of(lastRequest));
+        when(mockRequestMapper.itemRequestsToResponseDtos(any()))
+                .thenReturn(List.of(dtoResponse));
+
+        mockMvc.perform(get("/requests/all?from=0&size=1&cursor=" + after.encode())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.of(lastRequest.getCreated(), 5).encode()))
+                .andExpect(jsonPath("$[0].id", is(dtoResponse.getId()), Integer.class));
+    }
+
+    @Test
+    void shouldReturnBadRequestIfCursorIsMalformed() throws Exception {
+        mockMvc.perform(get("/requests/all?from=0&size=1&cursor=not-a-cursor")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetRequestById() throws Exception {
         when(mockRequestService.findById(1))
@@ -6,10 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -63,7 +64,7 @@ public class ItemRequestServiceImplTests {
 
     @Test
     void shouldCreateRequest() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(requestor);
         ItemRequestDtoRequest dto = ItemRequestDtoRequest.builder()
                         .description("Описание")
@@ -76,7 +77,7 @@ public class ItemRequestServiceImplTests {
         ItemRequest actualRequest = requestService.create(1, dto);
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         verify(mockRequestMapper, times(1))
                 .dtoRequestToItemRequest(dto, requestor);
         verify(mockRequestRepo, times(1))
@@ -86,7 +87,7 @@ public class ItemRequestServiceImplTests {
 
     @Test
     void shouldFindRequestsOfUser() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(requestor);
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         List<ItemRequest> expectedRequests = Collections.singletonList(expectedRequest);
@@ -96,7 +97,7 @@ public class ItemRequestServiceImplTests {
         List<ItemRequest> actualRequests = requestService.findRequestsOfUser(1);
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         verify(mockRequestRepo, times(1))
                 .findItemRequestsByRequestor(requestor, sort);
         assertEquals(expectedRequests, actualRequests);
@@ -104,29 +105,28 @@ public class ItemRequestServiceImplTests {
 
     @Test
     void shouldFindEmptyPageIfUserIsRequestor() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(requestor);
         int from = 0;
         int size = 1;
-        int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        Pageable pageRequest = OffsetPageRequest.of(from, size);
+        Cursor first = Cursor.HIGHEST;
         List<ItemRequest> expectedRequests = Collections.emptyList();
-        when(mockRequestRepo.findItemRequestsByRequestorNotEqualUser(requestor, pageRequest))
-                .thenReturn(Page.empty());
+        when(mockRequestRepo.findItemRequestsByRequestorNotEqualUser(requestor, first.getPosition(), first.getId(), pageRequest))
+                .thenReturn(Collections.emptyList());
 
         List<ItemRequest> actualRequests = requestService.findRequestsOfOtherUsers(1, from, size);
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         verify(mockRequestRepo, times(1))
-                .findItemRequestsByRequestorNotEqualUser(requestor, pageRequest);
+                .findItemRequestsByRequestorNotEqualUser(requestor, first.getPosition(), first.getId(), pageRequest);
         assertEquals(expectedRequests, actualRequests);
     }
 
     @Test
     void shouldThrowIfFromIsNegative() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(requestor);
         String expectedMessage = "Размер или элемент, с которого необходимо вернуть вещи, не должны быть меньше нуля";
 
@@ -135,13 +135,13 @@ public class ItemRequestServiceImplTests {
                  () -> requestService.findRequestsOfOtherUsers(1, -1, 1)
         ).getMessage();
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         assertEquals(expectedMessage, actualMessage);
     }
 
     @Test
     void shouldThrowIfSizeIsLessThanOne() {
-        when(mockUserService.findById(1))
+        when(mockUserService.findReferenceById(1))
                 .thenReturn(requestor);
         String expectedMessage = "Размер или элемент, с которого необходимо вернуть вещи, не должны быть меньше нуля";
 
@@ -151,7 +151,7 @@ public class ItemRequestServiceImplTests {
         ).getMessage();
 
         verify(mockUserService, times(1))
-                .findById(1);
+                .findReferenceById(1);
         assertEquals(expectedMessage, actualMessage);
     }
 
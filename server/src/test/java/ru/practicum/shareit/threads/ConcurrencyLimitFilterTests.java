@@ -0,0 +1,95 @@
+package ru.practicum.shareit.threads;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ConcurrencyLimitFilterTests {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1);
+
+    AtomicInteger servedRequests = new AtomicInteger();
+
+    @Test
+    void shouldReleasePermitWhenRequestFails() {
+        FilterChain failingChain = (request, response) -> {
+            throw new ServletException("Ошибка обработки");
+        };
+
+        assertThrows(ServletException.class,
+                () -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), failingChain));
+        assertTimeoutPreemptively(TIMEOUT, this::serveRequest);
+
+        assertEquals(1, servedRequests.get());
+    }
+
+    @Test
+    void shouldReleasePermitWhenRequestGoesAsync() throws Exception {
+        MockHttpServletRequest asyncRequest = new MockHttpServletRequest();
+        asyncRequest.setAsyncSupported(true);
+        FilterChain asyncChain = (request, response) -> request.startAsync();
+
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), asyncChain);
+        assertTimeoutPreemptively(TIMEOUT, this::serveRequest);
+
+        assertEquals(1, servedRequests.get());
+    }
+
+    @Test
+    void shouldNotWaitForPermitOnAsyncDispatch() throws Exception {
+        MockHttpServletRequest asyncRequest = new MockHttpServletRequest();
+        asyncRequest.setAsyncSupported(true);
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        CountDownLatch permitTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busyRequest = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+                    permitTaken.countDown();
+                    awaitUninterruptibly(release);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        busyRequest.start();
+        permitTaken.await();
+
+        try {
+            asyncRequest.setDispatcherType(DispatcherType.ASYNC);
+            assertTimeoutPreemptively(TIMEOUT, () -> filter.doFilter(asyncRequest, new MockHttpServletResponse(),
+                    (request, response) -> servedRequests.incrementAndGet()));
+        } finally {
+            release.countDown();
+            busyRequest.join();
+        }
+
+        assertEquals(1, servedRequests.get());
+    }
+
+    private void serveRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> servedRequests.incrementAndGet());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
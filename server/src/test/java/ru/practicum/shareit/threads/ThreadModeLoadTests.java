@@ -0,0 +1,187 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDtoRequest;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Starts the server once per thread mode and fires the same mix of item and booking reads at it from many clients,
+ * logging throughput and p99 latency of each mode. The virtual thread mode is measured only on JDK 21 or newer.
+ * Runs only in the {@code load} profile: {@code mvn test -P load}
+ */
+@Slf4j
+@Tag("load")
+public class ThreadModeLoadTests {
+
+    static final int CLIENTS = 200;
+
+    static final int REQUESTS = 2000;
+
+    @Test
+    void shouldServeSameLoadInEveryThreadMode() throws Exception {
+        List<LoadResult> results = new ArrayList<>();
+        results.add(runLoad("platform"));
+        if (VirtualThreads.isSupported()) {
+            results.add(runLoad("virtual"));
+        } else {
+            log.info("Режим virtual пропущен: виртуальные потоки недоступны в JDK {}", Runtime.version());
+        }
+
+        for (LoadResult result : results) {
+            log.info("Режим {}: {} запросов от {} клиентов за {} с, {} в секунду, p99 {} мс, ошибок {}",
+                    result.mode, REQUESTS, CLIENTS, String.format("%.3f", result.seconds),
+                    String.format("%.1f", REQUESTS / result.seconds), String.format("%.1f", result.p99Millis),
+                    result.errors);
+            assertEquals(0, result.errors, "Режим " + result.mode);
+        }
+    }
+
+    private LoadResult runLoad(String mode) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("testConfigurationExcludeFilter", new TestConfigurationExcludeFilter()))
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load_" + mode,
+                        "--shareit.threads.mode=" + mode,
+                        "--logging.level.org.springframework.orm.jpa=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.ru.practicum.shareit.threads=INFO"
+                );
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            int[] ids = prepareData(context);
+            List<URI> uris = List.of(
+                    URI.create("http://localhost:" + port + "/items/" + ids[1]),
+                    URI.create("http://localhost:" + port + "/bookings?state=ALL&from=0&size=10"),
+                    URI.create("http://localhost:" + port + "/users/" + ids[0])
+            );
+            return sendRequests(mode, uris, ids[0]);
+        } finally {
+            context.close();
+        }
+    }
+
+    private int[] prepareData(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        BookingService bookingService = context.getBean(BookingService.class);
+
+        User owner = userService.create(UserDtoRequest.builder().name("owner").email("owner@load.ru").build());
+        User booker = userService.create(UserDtoRequest.builder().name("booker").email("booker@load.ru").build());
+        Item item = itemService.create(ItemDtoRequest.builder()
+                .name("Палатка")
+                .description("Четырехместная палатка")
+                .available(true)
+                .build(), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < 10; i++) {
+            bookingService.create(BookingDtoRequest.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(2))
+                    .build(), booker.getId());
+        }
+        return new int[]{booker.getId(), item.getId()};
+    }
+
+    private LoadResult sendRequests(String mode, List<URI> uris, int userId) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Callable<Long>> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size()))
+                    .header("X-Sharer-User-Id", String.valueOf(userId))
+                    .GET()
+                    .build();
+            requests.add(() -> {
+                long sentAt = System.nanoTime();
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                long latency = System.nanoTime() - sentAt;
+                return response.statusCode() == 200 ? latency : -1;
+            });
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<Future<Long>> futures = executor.invokeAll(requests);
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+            long[] latencies = new long[REQUESTS];
+            int errors = 0;
+            for (int i = 0; i < REQUESTS; i++) {
+                latencies[i] = futures.get(i).get();
+                if (latencies[i] < 0) {
+                    errors++;
+                }
+            }
+            Arrays.sort(latencies);
+            double p99Millis = latencies[(int) Math.ceil(REQUESTS * 0.99) - 1] / 1e6;
+            return new LoadResult(mode, seconds, p99Millis, errors);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Keeps nested test configurations of other tests out of the component scan, as the test context does for them
+     */
+    private static class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().isAnnotated(TestConfiguration.class.getName());
+        }
+    }
+
+    private static class LoadResult {
+
+        final String mode;
+
+        final double seconds;
+
+        final double p99Millis;
+
+        final int errors;
+
+        LoadResult(String mode, double seconds, double p99Millis, int errors) {
+            this.mode = mode;
+            this.seconds = seconds;
+            this.p99Millis = p99Millis;
+            this.errors = errors;
+        }
+    }
+}
@@ -1,20 +1,24 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.user.dto.UserDtoRequest;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(
@@ -26,6 +30,8 @@ public class IntegrationUserTests {
 
     final UserService userService;
 
+    final MeterRegistry meterRegistry;
+
     List<User> expectedUsers = new ArrayList<>();
 
     @BeforeEach
@@ -73,4 +79,37 @@ public class IntegrationUserTests {
         assertEquals(expectedEmail, actualEmail);
     }
 
+    @Test
+    void shouldServeRepeatedLookupsOfUsersFromCache() {
+        int id = expectedUsers.get(0).getId();
+        double hitsBefore = countUserCacheGets("hit");
+        double missesBefore = countUserCacheGets("miss");
+
+        userService.findReferenceById(id);
+        userService.findReferenceById(id);
+        assertThrows(EntityDoesNotExistException.class, () -> userService.findReferenceById(Integer.MAX_VALUE));
+        assertThrows(EntityDoesNotExistException.class, () -> userService.findReferenceById(Integer.MAX_VALUE));
+
+        assertEquals(hitsBefore + 2, countUserCacheGets("hit"));
+        assertEquals(missesBefore + 2, countUserCacheGets("miss"));
+    }
+
+    @Test
+    void shouldNotServeDeletedUserFromCache() {
+        int id = expectedUsers.get(0).getId();
+        userService.findReferenceById(id);
+
+        userService.delete(id);
+
+        assertThrows(EntityDoesNotExistException.class, () -> userService.findReferenceById(id));
+    }
+
+    private double countUserCacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", UserServiceImpl.USERS)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import ru.practicum.shareit.exception.EntityAlreadyExistsException;
 import ru.practicum.shareit.exception.EntityDoesNotExistException;
 import ru.practicum.shareit.user.dto.UserDtoRequest;
@@ -36,6 +37,9 @@ UserServiceImplTests {
     @Mock
     UserPatchUpdater mockUserPatchUpdater;
 
+    @Mock
+    CacheManager mockCacheManager;
+
     @InjectMocks
     UserServiceImpl userService;
 
@@ -95,6 +99,30 @@ UserServiceImplTests {
         assertEquals(expectedUser, actualUser);
     }
 
+    @Test
+    void shouldFindReferenceToExistingUser() {
+        when(mockUserRepo.existsById(1))
+                .thenReturn(true);
+        when(mockUserRepo.getReferenceById(1))
+                .thenReturn(expectedUser);
+
+        User actualUser = userService.findReferenceById(1);
+
+        verify(mockUserRepo, never())
+                .findById(1);
+        assertEquals(expectedUser, actualUser);
+    }
+
+    @Test
+    void shouldThrowIfReferencedUserDoesNotExist() {
+        when(mockUserRepo.existsById(2))
+                .thenReturn(false);
+
+        assertThrows(EntityDoesNotExistException.class, () -> userService.findReferenceById(2));
+        verify(mockUserRepo, never())
+                .getReferenceById(2);
+    }
+
     @Test
     void shouldThrowIfUserWithIdDoesNotExist() {
         when(mockUserRepo.findById(2))